@@ -1,5 +1,7 @@
 package mini;
 
+import java.io.PrintStream;
+
 /**
  * Utility class to pretty-print the AST as an indented tree.
  * Very useful for debugging and for your class presentation.
@@ -7,41 +9,47 @@ package mini;
 public class ASTPrinter {
 
     public static void print(ProgramNode program) {
-        printNode(program, 0);
+        AstWalker.preOrder(program, (node, depth) ->
+                System.out.println(" ".repeat(depth * 2) + node.accept(LABEL)));
     }
 
-    private static void printNode(ASTNode node, int indent) {
-        String prefix = " ".repeat(indent);
-
-        if (node instanceof ProgramNode) {
-            ProgramNode p = (ProgramNode) node;
-            System.out.println(prefix + "Program");
-            for (StatementNode stmt : p.getStatements()) {
-                printNode(stmt, indent + 2);
-            }
-
-        } else if (node instanceof AssignmentNode) {
-            AssignmentNode a = (AssignmentNode) node;
-            System.out.println(prefix + "Assignment: " + a.getIdentifier());
-            printNode(a.getExpression(), indent + 2);
-
-        } else if (node instanceof BinaryExpressionNode) {
-            BinaryExpressionNode b = (BinaryExpressionNode) node;
-            System.out.println(prefix + "BinaryExpr '" + b.getOperator() + "'");
-            printNode(b.getLeft(), indent + 2);
-            printNode(b.getRight(), indent + 2);
-
-        } else if (node instanceof NumberLiteralNode) {
-            NumberLiteralNode n = (NumberLiteralNode) node;
-            String type = n.isReal() ? "RealLiteral" : "IntegerLiteral";
-            System.out.println(prefix + type + ": " + n.getLexeme());
-
-        } else if (node instanceof IdentifierExpressionNode) {
-            IdentifierExpressionNode id = (IdentifierExpressionNode) node;
-            System.out.println(prefix + "IdentifierExpr: " + id.getName());
-
-        } else {
-            System.out.println(prefix + "Unknown node type: " + node.getClass().getSimpleName());
-        }
+    /**
+     * Print one statement indented as it appears under "Program" in print(),
+     * so a program can be printed a statement at a time.
+     */
+    public static void printStatement(StatementNode statement, PrintStream out) {
+        AstWalker.preOrder(statement, (node, depth) ->
+                out.println(" ".repeat((depth + 1) * 2) + node.accept(LABEL)));
     }
+
+    /**
+     * One-line description of a node (without its children).
+     */
+    static final AstVisitor<String> LABEL = new AstVisitor<>() {
+        @Override
+        public String visitProgram(ProgramNode node) {
+            return "Program";
+        }
+
+        @Override
+        public String visitAssignment(AssignmentNode node) {
+            return "Assignment: " + node.getIdentifier();
+        }
+
+        @Override
+        public String visitBinaryExpression(BinaryExpressionNode node) {
+            return "BinaryExpr '" + node.getOperator().getSymbol() + "'";
+        }
+
+        @Override
+        public String visitNumberLiteral(NumberLiteralNode node) {
+            String type = node.isReal() ? "RealLiteral" : "IntegerLiteral";
+            return type + ": " + node.getLexeme();
+        }
+
+        @Override
+        public String visitIdentifierExpression(IdentifierExpressionNode node) {
+            return "IdentifierExpr: " + node.getName();
+        }
+    };
 }
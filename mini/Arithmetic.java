@@ -0,0 +1,44 @@
+package mini;
+
+/**
+ * COSC3127 Programming Languages - Assignment 1
+ *
+ * Integer arithmetic rules of Mini shared by the evaluators.
+ * Integers are 64-bit and wrap on overflow; '/' truncates toward zero
+ * and division by zero throws ArithmeticException, as in Java.
+ */
+final class Arithmetic {
+
+    private Arithmetic() {
+    }
+
+    /**
+     * Integer exponentiation by squaring.
+     * A negative exponent truncates like integer division does:
+     * 1 ^ n = 1, (-1) ^ n = +-1, anything else ^ n = 0
+     * (0 ^ n with n negative is a division by zero).
+     */
+    static long pow(long base, long exponent) {
+        if (exponent < 0) {
+            if (base == 0) {
+                throw new ArithmeticException("/ by zero");
+            }
+            if (base == 1) {
+                return 1;
+            }
+            if (base == -1) {
+                return (exponent & 1) == 0 ? 1 : -1;
+            }
+            return 0;
+        }
+        long result = 1;
+        while (exponent != 0) {
+            if ((exponent & 1) != 0) {
+                result *= base;
+            }
+            base *= base;
+            exponent >>= 1;
+        }
+        return result;
+    }
+}
@@ -5,38 +5,91 @@ import java.util.List;
 /**
  * Base class for all AST nodes.
  * Stores source position (line, column) for better error reporting.
+ * Nodes built from lexer tokens keep the token's offset and LineMap
+ * instead, and look line and column up only when asked, as Token does.
+ *
+ * The hierarchy is sealed: the node classes in this file are the only
+ * ones, so an AstVisitor covering them all is exhaustive and every pass
+ * dispatches through accept() instead of an instanceof chain.
  */
-public abstract class ASTNode {
+abstract sealed class ASTNode permits ProgramNode, StatementNode, ExpressionNode {
     private final int line;
     private final int column;
+    private final int offset; // Start offset in the source, used when lines is set
+    private final LineMap lines; // Source line index, null if line/column are stored
 
     protected ASTNode(int line, int column) {
         this.line = line;
         this.column = column;
+        this.offset = -1;
+        this.lines = null;
+    }
+
+    /**
+     * Node at the position of a token.
+     */
+    ASTNode(Token at) {
+        this.lines = at.getLineMap();
+        this.offset = at.getOffset();
+        this.line = lines != null ? 0 : at.getLine();
+        this.column = lines != null ? 0 : at.getColumn();
+    }
+
+    /**
+     * Node at the same position as another (e.g. a rebuilt node).
+     */
+    ASTNode(ASTNode at) {
+        this.line = at.line;
+        this.column = at.column;
+        this.offset = at.offset;
+        this.lines = at.lines;
     }
 
     public int getLine() {
-        return line;
+        return lines != null ? lines.lineOf(offset) : line;
     }
 
     public int getColumn() {
-        return column;
+        return lines != null ? lines.columnOf(offset) : column;
     }
+
+    /**
+     * Double dispatch to the visitor method for this node's class.
+     */
+    public abstract <R> R accept(AstVisitor<R> visitor);
 }
 
 /**
  * Base class for all statement nodes.
  */
-abstract class StatementNode extends ASTNode {
+abstract sealed class StatementNode extends ASTNode permits AssignmentNode {
     protected StatementNode(int line, int column) {
         super(line, column);
     }
+
+    StatementNode(Token at) {
+        super(at);
+    }
+
+    StatementNode(ASTNode at) {
+        super(at);
+    }
+
+    @Override
+    public final <R> R accept(AstVisitor<R> visitor) {
+        return accept((StatementVisitor<R>) visitor);
+    }
+
+    /**
+     * Double dispatch to the visitor method for this statement's class.
+     */
+    public abstract <R> R accept(StatementVisitor<R> visitor);
 }
 
 /**
  * Root node: represents a complete Mini program.
  */
-class ProgramNode extends ASTNode {
+final class ProgramNode extends ASTNode {
     private final List<StatementNode> statements;
 
     public ProgramNode(List<StatementNode> statements, int line, int column) {
@@ -44,24 +97,58 @@ class ProgramNode extends ASTNode {
         this.statements = statements;
     }
 
+    ProgramNode(List<StatementNode> statements, Token at) {
+        super(at);
+        this.statements = statements;
+    }
+
+    ProgramNode(List<StatementNode> statements, ASTNode at) {
+        super(at);
+        this.statements = statements;
+    }
+
     public List<StatementNode> getStatements() {
         return statements;
     }
+
+    @Override
+    public <R> R accept(AstVisitor<R> visitor) {
+        return visitor.visitProgram(this);
+    }
 }
 
 /**
  * Base class for all expressions.
  */
-abstract class ExpressionNode extends ASTNode {
+abstract sealed class ExpressionNode extends ASTNode
+        permits BinaryExpressionNode, NumberLiteralNode, IdentifierExpressionNode {
     protected ExpressionNode(int line, int column) {
         super(line, column);
     }
+
+    ExpressionNode(Token at) {
+        super(at);
+    }
+
+    ExpressionNode(ASTNode at) {
+        super(at);
+    }
+
+    @Override
+    public final <R> R accept(AstVisitor<R> visitor) {
+        return accept((ExpressionVisitor<R>) visitor);
+    }
+
+    /**
+     * Double dispatch to the visitor method for this expression's class.
+     */
+    public abstract <R> R accept(ExpressionVisitor<R> visitor);
 }
 
 /**
  * Assignment: identifier := expression
  */
-class AssignmentNode extends StatementNode {
+final class AssignmentNode extends StatementNode {
     private final String identifier;
     private final ExpressionNode expression;
 
@@ -74,6 +161,18 @@ class AssignmentNode extends StatementNode {
         this.expression = expression;
     }
 
+    AssignmentNode(String identifier, ExpressionNode expression, Token at) {
+        super(at);
+        this.identifier = identifier;
+        this.expression = expression;
+    }
+
+    AssignmentNode(String identifier, ExpressionNode expression, ASTNode at) {
+        super(at);
+        this.identifier = identifier;
+        this.expression = expression;
+    }
+
     public String getIdentifier() {
         return identifier;
     }
@@ -81,19 +180,24 @@ class AssignmentNode extends StatementNode {
     public ExpressionNode getExpression() {
         return expression;
     }
+
+    @Override
+    public <R> R accept(StatementVisitor<R> visitor) {
+        return visitor.visitAssignment(this);
+    }
 }
 
 /**
  * Binary expression: left (operator) right
  * For example: a + b, x * y, 2 ^ 3.
  */
-class BinaryExpressionNode extends ExpressionNode {
+final class BinaryExpressionNode extends ExpressionNode {
     private final ExpressionNode left;
-    private final String operator;
+    private final Operator operator;
     private final ExpressionNode right;
 
     public BinaryExpressionNode(ExpressionNode left,
-                                String operator,
+                                Operator operator,
                                 ExpressionNode right,
                                 int line,
                                 int column) {
@@ -103,45 +207,100 @@ class BinaryExpressionNode extends ExpressionNode {
         this.right = right;
     }
 
+    BinaryExpressionNode(ExpressionNode left, Operator operator, ExpressionNode right, Token at) {
+        super(at);
+        this.left = left;
+        this.operator = operator;
+        this.right = right;
+    }
+
+    BinaryExpressionNode(ExpressionNode left, Operator operator, ExpressionNode right, ASTNode at) {
+        super(at);
+        this.left = left;
+        this.operator = operator;
+        this.right = right;
+    }
+
     public ExpressionNode getLeft() {
         return left;
     }
 
-    public String getOperator() {
+    public Operator getOperator() {
         return operator;
     }
 
     public ExpressionNode getRight() {
         return right;
     }
+
+    @Override
+    public <R> R accept(ExpressionVisitor<R> visitor) {
+        return visitor.visitBinaryExpression(this);
+    }
 }
 
 /**
  * Number literal (integer or real).
+ * Holds the value converted by the Lexer, not the source text.
  */
-class NumberLiteralNode extends ExpressionNode {
-    private final String lexeme;
+final class NumberLiteralNode extends ExpressionNode {
+    private final long intValue;
+    private final double realValue;
     private final boolean isReal;
 
-    public NumberLiteralNode(String lexeme, boolean isReal, int line, int column) {
+    public NumberLiteralNode(long value, int line, int column) {
+        super(line, column);
+        this.intValue = value;
+        this.realValue = 0;
+        this.isReal = false;
+    }
+
+    public NumberLiteralNode(double value, int line, int column) {
         super(line, column);
-        this.lexeme = lexeme;
-        this.isReal = isReal;
+        this.intValue = 0;
+        this.realValue = value;
+        this.isReal = true;
     }
 
+    /**
+     * Literal for an INTEGER or REAL token, holding its value.
+     */
+    NumberLiteralNode(Token number) {
+        super(number);
+        this.isReal = number.getType() == Token.Type.REAL;
+        this.intValue = isReal ? 0 : number.getIntValue();
+        this.realValue = isReal ? number.getRealValue() : 0;
+    }
+
+    /**
+     * Canonical source text of the value (e.g. for printing).
+     */
     public String getLexeme() {
-        return lexeme;
+        return isReal ? NumberLiterals.format(realValue) : Long.toString(intValue);
+    }
+
+    public long getIntValue() {
+        return intValue;
+    }
+
+    public double getRealValue() {
+        return realValue;
     }
 
     public boolean isReal() {
         return isReal;
     }
+
+    @Override
+    public <R> R accept(ExpressionVisitor<R> visitor) {
+        return visitor.visitNumberLiteral(this);
+    }
 }
 
 /**
  * Identifier expression: use of a variable name in an expression.
  */
-class IdentifierExpressionNode extends ExpressionNode {
+final class IdentifierExpressionNode extends ExpressionNode {
     private final String name;
 
     public IdentifierExpressionNode(String name, int line, int column) {
@@ -149,7 +308,17 @@ class IdentifierExpressionNode extends ExpressionNode {
         this.name = name;
     }
 
+    IdentifierExpressionNode(Token id) {
+        super(id);
+        this.name = id.getValue();
+    }
+
     public String getName() {
         return name;
     }
+
+    @Override
+    public <R> R accept(ExpressionVisitor<R> visitor) {
+        return visitor.visitIdentifierExpression(this);
+    }
 }
@@ -0,0 +1,64 @@
+package mini;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * COSC3127 Programming Languages - Assignment 1
+ *
+ * Base class for tree rewrites. By default every node is rebuilt from
+ * its transformed children, and a node whose children all come back
+ * unchanged is returned as-is, so untouched subtrees are shared with the
+ * input. Subclasses override only the methods they rewrite.
+ *
+ * Expressions are rewritten bottom-up through AstWalker.fold, so the
+ * fold methods receive already transformed children and deep
+ * expressions do not overflow the stack.
+ */
+class AstTransformer implements StatementVisitor<StatementNode>, ExpressionFolder<ExpressionNode> {
+
+    /**
+     * Transform a whole program.
+     */
+    public ProgramNode transform(ProgramNode program) {
+        List<StatementNode> statements = new ArrayList<>(program.getStatements().size());
+        boolean changed = false;
+        for (StatementNode stmt : program.getStatements()) {
+            StatementNode result = stmt.accept(this);
+            changed |= result != stmt;
+            statements.add(result);
+        }
+        return changed ? new ProgramNode(statements, program) : program;
+    }
+
+    @Override
+    public StatementNode visitAssignment(AssignmentNode node) {
+        ExpressionNode expr = transform(node.getExpression());
+        if (expr == node.getExpression()) {
+            return node;
+        }
+        return new AssignmentNode(node.getIdentifier(), expr, node);
+    }
+
+    protected ExpressionNode transform(ExpressionNode expr) {
+        return AstWalker.fold(expr, this);
+    }
+
+    @Override
+    public ExpressionNode foldBinaryExpression(BinaryExpressionNode node, ExpressionNode left, ExpressionNode right) {
+        if (left == node.getLeft() && right == node.getRight()) {
+            return node;
+        }
+        return new BinaryExpressionNode(left, node.getOperator(), right, node);
+    }
+
+    @Override
+    public ExpressionNode foldNumberLiteral(NumberLiteralNode node) {
+        return node;
+    }
+
+    @Override
+    public ExpressionNode foldIdentifierExpression(IdentifierExpressionNode node) {
+        return node;
+    }
+}
@@ -0,0 +1,15 @@
+package mini;
+
+/**
+ * COSC3127 Programming Languages - Assignment 1
+ *
+ * Visitor over the sealed AST hierarchy (see ASTNode.accept).
+ * There is one method per concrete node class, so an implementation that
+ * compiles handles every kind of node; adding a node class breaks every
+ * visitor until it is handled.
+ *
+ * @param <R> Result type of the visit
+ */
+interface AstVisitor<R> extends StatementVisitor<R>, ExpressionVisitor<R> {
+    R visitProgram(ProgramNode node);
+}
@@ -0,0 +1,167 @@
+package mini;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * COSC3127 Programming Languages - Assignment 1
+ *
+ * Iterative AST traversals.
+ *
+ * Long '+'/'-' and '*'/'/' chains parse into left-deep trees as deep as
+ * the chain is long, so walking them with recursion can overflow the
+ * thread stack. These walks keep their own stack instead and visit
+ * children left to right. Children are found through the AstVisitor
+ * dispatch, so a new node class only has to be added to ChildPusher.
+ * fold() runs an ExpressionFolder on the post-order walk, keeping the
+ * children's results on a value stack instead of the call stack.
+ */
+final class AstWalker {
+
+    /**
+     * Callback for each visited node.
+     */
+    interface Listener {
+        /**
+         * @param node The node
+         * @param depth Distance from the root (the root has depth 0)
+         */
+        void visit(ASTNode node, int depth);
+    }
+
+    private AstWalker() {
+    }
+
+    /**
+     * Visit every node, each parent before its children.
+     */
+    static void preOrder(ASTNode root, Listener listener) {
+        Stack stack = new Stack();
+        ChildPusher pusher = new ChildPusher(stack);
+        stack.push(root, 0, false);
+
+        while (stack.size > 0) {
+            stack.size--;
+            ASTNode node = stack.nodes[stack.size];
+            int depth = stack.depths[stack.size];
+            listener.visit(node, depth);
+            pusher.depth = depth + 1;
+            node.accept(pusher);
+        }
+    }
+
+    /**
+     * Visit every node, each parent after all of its children.
+     */
+    static void postOrder(ASTNode root, Listener listener) {
+        Stack stack = new Stack();
+        ChildPusher pusher = new ChildPusher(stack);
+        stack.push(root, 0, false);
+
+        while (stack.size > 0) {
+            int top = stack.size - 1;
+            ASTNode node = stack.nodes[top];
+            int depth = stack.depths[top];
+            if (stack.expanded[top]) {
+                stack.size--;
+                listener.visit(node, depth);
+            } else {
+                stack.expanded[top] = true;
+                pusher.depth = depth + 1;
+                node.accept(pusher);
+            }
+        }
+    }
+
+    /**
+     * Compute a result for every node of an expression, children first.
+     * @return The folder's result for the root
+     */
+    static <R> R fold(ExpressionNode root, ExpressionFolder<R> folder) {
+        List<R> values = new ArrayList<>();
+        ExpressionVisitor<R> step = new ExpressionVisitor<>() {
+            @Override
+            public R visitBinaryExpression(BinaryExpressionNode node) {
+                R right = values.remove(values.size() - 1);
+                R left = values.remove(values.size() - 1);
+                return folder.foldBinaryExpression(node, left, right);
+            }
+
+            @Override
+            public R visitNumberLiteral(NumberLiteralNode node) {
+                return folder.foldNumberLiteral(node);
+            }
+
+            @Override
+            public R visitIdentifierExpression(IdentifierExpressionNode node) {
+                return folder.foldIdentifierExpression(node);
+            }
+        };
+        postOrder(root, (node, depth) -> values.add(((ExpressionNode) node).accept(step)));
+        return values.get(0);
+    }
+
+    private static final class Stack {
+        ASTNode[] nodes = new ASTNode[32];
+        int[] depths = new int[32];
+        boolean[] expanded = new boolean[32];
+        int size = 0;
+
+        void push(ASTNode node, int depth, boolean isExpanded) {
+            if (size == nodes.length) {
+                nodes = Arrays.copyOf(nodes, size * 2);
+                depths = Arrays.copyOf(depths, size * 2);
+                expanded = Arrays.copyOf(expanded, size * 2);
+            }
+            nodes[size] = node;
+            depths[size] = depth;
+            expanded[size] = isExpanded;
+            size++;
+        }
+    }
+
+    /**
+     * Pushes a node's children in reverse, so they pop left to right.
+     */
+    private static final class ChildPusher implements AstVisitor<Void> {
+        private final Stack stack;
+        int depth;
+
+        ChildPusher(Stack stack) {
+            this.stack = stack;
+        }
+
+        @Override
+        public Void visitProgram(ProgramNode node) {
+            List<StatementNode> statements = node.getStatements();
+            for (int i = statements.size() - 1; i >= 0; i--) {
+                stack.push(statements.get(i), depth, false);
+            }
+            return null;
+        }
+
+        @Override
+        public Void visitAssignment(AssignmentNode node) {
+            stack.push(node.getExpression(), depth, false);
+            return null;
+        }
+
+        @Override
+        public Void visitBinaryExpression(BinaryExpressionNode node) {
+            stack.push(node.getRight(), depth, false);
+            stack.push(node.getLeft(), depth, false);
+            return null;
+        }
+
+        @Override
+        public Void visitNumberLiteral(NumberLiteralNode node) {
+            return null;
+        }
+
+        @Override
+        public Void visitIdentifierExpression(IdentifierExpressionNode node) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,408 @@
+package mini;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * COSC3127 Programming Languages - Assignment 1
+ *
+ * Columnar batch evaluator: runs one Mini program over many rows of input.
+ *
+ * Every identifier the program reads before assigning it is a free
+ * variable and must be given an input column (long[] for integer,
+ * double[] for real). The program is compiled once into a flat list of
+ * column instructions over fixed-size chunk buffers, then every chunk of
+ * rows runs each instruction as one tight primitive loop that the JIT can
+ * unroll and vectorize. Intermediate buffers are reused once their value
+ * is dead, so memory depends on the program, not on the row count.
+ *
+ * Types are those the TypeChecker infers, with the input columns' types
+ * as the declared input types, so both engines agree: a variable keeps
+ * the type of its first assignment (an integer value assigned to a real
+ * variable is promoted) and conflicting programs are rejected with a
+ * TypeException. See Arithmetic for integer rules.
+ * The result has one column per assigned variable holding its final value.
+ */
+public final class BatchEvaluator {
+
+    /** Rows per chunk; small enough that all live buffers stay in cache. */
+    public static final int CHUNK_SIZE = 1024;
+
+    // Opcodes; each instruction is {op, dst, a, b} in the code array
+    private static final int LOAD_L = 0;
+    private static final int LOAD_D = 1;
+    private static final int CONV = 2; // long slot a -> double slot dst
+    private static final int ADD_L = 3;
+    private static final int SUB_L = 4;
+    private static final int MUL_L = 5;
+    private static final int DIV_L = 6;
+    private static final int POW_L = 7;
+    private static final int ADD_D = 8;
+    private static final int SUB_D = 9;
+    private static final int MUL_D = 10;
+    private static final int DIV_D = 11;
+    private static final int POW_D = 12;
+
+    private final ProgramNode program;
+
+    public BatchEvaluator(ProgramNode program) {
+        this.program = program;
+    }
+
+    /**
+     * Evaluate the program once per input row.
+     * @param inputs Column per free variable; all columns must have the same length
+     * @return Column per assigned variable, in order of first assignment
+     * @throws TypeException if the program is not well typed for these inputs
+     */
+    public Map<String, Column> evaluate(Map<String, Column> inputs) {
+        int rows = -1;
+        for (Map.Entry<String, Column> e : inputs.entrySet()) {
+            if (rows >= 0 && e.getValue().size() != rows) {
+                throw new IllegalArgumentException("Input column '" + e.getKey()
+                        + "' has " + e.getValue().size() + " rows, expected " + rows);
+            }
+            rows = e.getValue().size();
+        }
+        if (rows < 0) {
+            rows = 1; // No free variables: the program is constant
+        }
+
+        Map<String, ValueType> inputTypes = new HashMap<>();
+        for (Map.Entry<String, Column> e : inputs.entrySet()) {
+            inputTypes.put(e.getKey(), e.getValue().isReal() ? ValueType.REAL : ValueType.INTEGER);
+        }
+        TypedProgram typed = new TypeChecker(inputTypes).check(program);
+
+        Plan plan = new Plan(inputs, typed.getVariables());
+        for (StatementNode stmt : program.getStatements()) {
+            stmt.accept(plan);
+        }
+        plan.finish();
+
+        Map<String, Column> outputs = new LinkedHashMap<>();
+        for (Map.Entry<String, Integer> e : plan.bindings.entrySet()) {
+            outputs.put(e.getKey(), isReal(e.getValue())
+                    ? Column.ofDoubles(new double[rows])
+                    : Column.ofLongs(new long[rows]));
+        }
+
+        for (int base = 0; base < rows; base += CHUNK_SIZE) {
+            int len = Math.min(CHUNK_SIZE, rows - base);
+            plan.run(base, len);
+            for (Map.Entry<String, Integer> e : plan.bindings.entrySet()) {
+                int slot = e.getValue();
+                if (isReal(slot)) {
+                    System.arraycopy(plan.d[~slot], 0, outputs.get(e.getKey()).doubles(), base, len);
+                } else {
+                    System.arraycopy(plan.l[slot], 0, outputs.get(e.getKey()).longs(), base, len);
+                }
+            }
+        }
+        return outputs;
+    }
+
+    // Slots are indices into the long buffers (>= 0) or ~index into the double buffers
+    private static boolean isReal(int slot) {
+        return slot < 0;
+    }
+
+    /**
+     * Compiled program: chunk buffers plus instruction list.
+     * Buffers are reference counted while compiling so a temporary is
+     * recycled as soon as its consumer has been emitted. Constant and
+     * input buffers are pinned.
+     */
+    private static final class Plan implements StatementVisitor<Void>, ExpressionFolder<Integer> {
+        final List<long[]> longs = new ArrayList<>();
+        final List<double[]> doubles = new ArrayList<>();
+        final List<Integer> longRefs = new ArrayList<>();
+        final List<Integer> doubleRefs = new ArrayList<>();
+        final ArrayDeque<Integer> freeLongs = new ArrayDeque<>();
+        final ArrayDeque<Integer> freeDoubles = new ArrayDeque<>();
+
+        final Map<String, Column> inputColumns;
+        final Map<String, TypedProgram.Variable> variables; // static types from the TypeChecker
+        final List<Column> loaded = new ArrayList<>(); // input for each LOAD operand b
+        final Map<String, Integer> inputSlots = new HashMap<>();
+        final Map<Long, Integer> intConstants = new HashMap<>(); // value -> slot
+        final Map<Long, Integer> realConstants = new HashMap<>(); // raw double bits -> slot
+        final Map<String, Integer> bindings = new LinkedHashMap<>();
+
+        int[] code = new int[64];
+        int codeLength = 0;
+
+        long[][] l; // Buffers as arrays once compiling is finished
+        double[][] d;
+
+        private static final int PINNED = Integer.MAX_VALUE;
+
+        Plan(Map<String, Column> inputColumns, Map<String, TypedProgram.Variable> variables) {
+            this.inputColumns = inputColumns;
+            this.variables = variables;
+        }
+
+        @Override
+        public Void visitAssignment(AssignmentNode stmt) {
+            int value = AstWalker.fold(stmt.getExpression(), this);
+            if (variables.get(stmt.getIdentifier()).getType() == ValueType.REAL && !isReal(value)) {
+                value = promote(value); // the variable was typed real by an earlier assignment
+            }
+            Integer old = bindings.put(stmt.getIdentifier(), value);
+            if (old != null) {
+                release(old);
+            }
+            return null;
+        }
+
+        // Emitting code for an expression returns the slot holding its value;
+        // the caller owns one reference to it.
+
+        @Override
+        public Integer foldNumberLiteral(NumberLiteralNode n) {
+            return constant(n);
+        }
+
+        @Override
+        public Integer foldIdentifierExpression(IdentifierExpressionNode id) {
+            Integer bound = bindings.get(id.getName());
+            if (bound != null) {
+                retain(bound);
+                return bound;
+            }
+            return inputSlot(id);
+        }
+
+        @Override
+        public Integer foldBinaryExpression(BinaryExpressionNode b, Integer leftSlot, Integer rightSlot) {
+            int left = leftSlot;
+            int right = rightSlot;
+            boolean real = isReal(left) || isReal(right);
+            if (real && !isReal(left)) {
+                left = promote(left);
+            }
+            if (real && !isReal(right)) {
+                right = promote(right);
+            }
+
+            int dst = allocate(real);
+            instruction(opcode(b.getOperator(), real), dst, left, right);
+            release(left);
+            release(right);
+            return dst;
+        }
+
+        /**
+         * Constants are filled once while compiling, so they always get a
+         * buffer of their own (a recycled one would be overwritten at run
+         * time by the instructions that used it before). Equal literals
+         * share one buffer.
+         */
+        private int constant(NumberLiteralNode n) {
+            Map<Long, Integer> constantSlots = n.isReal() ? realConstants : intConstants;
+            long key = n.isReal() ? Double.doubleToRawLongBits(n.getRealValue()) : n.getIntValue();
+            Integer slot = constantSlots.get(key);
+            if (slot != null) {
+                return slot;
+            }
+            if (n.isReal()) {
+                double[] buffer = new double[CHUNK_SIZE];
+                Arrays.fill(buffer, n.getRealValue());
+                doubles.add(buffer);
+                doubleRefs.add(PINNED);
+                slot = ~(doubles.size() - 1);
+            } else {
+                long[] buffer = new long[CHUNK_SIZE];
+                Arrays.fill(buffer, n.getIntValue());
+                longs.add(buffer);
+                longRefs.add(PINNED);
+                slot = longs.size() - 1;
+            }
+            constantSlots.put(key, slot);
+            return slot;
+        }
+
+        private int inputSlot(IdentifierExpressionNode id) {
+            Integer slot = inputSlots.get(id.getName());
+            if (slot != null) {
+                return slot;
+            }
+            Column column = inputColumns.get(id.getName());
+            if (column == null) {
+                throw new IllegalArgumentException("No input column for variable '" + id.getName()
+                        + "' at line " + id.getLine() + ", column " + id.getColumn());
+            }
+            slot = allocate(column.isReal());
+            pin(slot);
+            loaded.add(column);
+            instruction(column.isReal() ? LOAD_D : LOAD_L, slot, 0, loaded.size() - 1);
+            inputSlots.put(id.getName(), slot);
+            return slot;
+        }
+
+        private int promote(int slot) {
+            int dst = allocate(true);
+            instruction(CONV, dst, slot, 0);
+            release(slot);
+            return dst;
+        }
+
+        private static int opcode(Operator operator, boolean real) {
+            int op;
+            switch (operator) {
+                case PLUS: op = ADD_L; break;
+                case MINUS: op = SUB_L; break;
+                case STAR: op = MUL_L; break;
+                case SLASH: op = DIV_L; break;
+                case CARET: op = POW_L; break;
+                default:
+                    throw new IllegalArgumentException("Unknown operator " + operator);
+            }
+            return real ? op + (ADD_D - ADD_L) : op;
+        }
+
+        private void instruction(int op, int dst, int a, int b) {
+            if (codeLength + 4 > code.length) {
+                code = Arrays.copyOf(code, code.length * 2);
+            }
+            code[codeLength++] = op;
+            code[codeLength++] = isReal(dst) ? ~dst : dst;
+            code[codeLength++] = isReal(a) ? ~a : a;
+            code[codeLength++] = isReal(b) ? ~b : b;
+        }
+
+        // New buffer with one reference, recycled if one of that type is free
+        private int allocate(boolean real) {
+            if (real) {
+                Integer free = freeDoubles.poll();
+                if (free != null) {
+                    doubleRefs.set(free, 1);
+                    return ~free;
+                }
+                doubles.add(new double[CHUNK_SIZE]);
+                doubleRefs.add(1);
+                return ~(doubles.size() - 1);
+            }
+            Integer free = freeLongs.poll();
+            if (free != null) {
+                longRefs.set(free, 1);
+                return free;
+            }
+            longs.add(new long[CHUNK_SIZE]);
+            longRefs.add(1);
+            return longs.size() - 1;
+        }
+
+        private void pin(int slot) {
+            if (isReal(slot)) {
+                doubleRefs.set(~slot, PINNED);
+            } else {
+                longRefs.set(slot, PINNED);
+            }
+        }
+
+        private void retain(int slot) {
+            List<Integer> refs = isReal(slot) ? doubleRefs : longRefs;
+            int i = isReal(slot) ? ~slot : slot;
+            if (refs.get(i) != PINNED) {
+                refs.set(i, refs.get(i) + 1);
+            }
+        }
+
+        private void release(int slot) {
+            List<Integer> refs = isReal(slot) ? doubleRefs : longRefs;
+            int i = isReal(slot) ? ~slot : slot;
+            int count = refs.get(i);
+            if (count == PINNED) {
+                return;
+            }
+            refs.set(i, count - 1);
+            if (count == 1) {
+                (isReal(slot) ? freeDoubles : freeLongs).push(i);
+            }
+        }
+
+        void finish() {
+            l = longs.toArray(new long[0][]);
+            d = doubles.toArray(new double[0][]);
+        }
+
+        /**
+         * Run every instruction over rows [base, base + len).
+         */
+        void run(int base, int len) {
+            for (int pc = 0; pc < codeLength; pc += 4) {
+                int dst = code[pc + 1];
+                int a = code[pc + 2];
+                int b = code[pc + 3];
+                switch (code[pc]) {
+                    case LOAD_L: System.arraycopy(loaded.get(b).longs(), base, l[dst], 0, len); break;
+                    case LOAD_D: System.arraycopy(loaded.get(b).doubles(), base, d[dst], 0, len); break;
+                    case CONV: convert(l[a], d[dst], len); break;
+                    case ADD_L: addLong(l[a], l[b], l[dst], len); break;
+                    case SUB_L: subLong(l[a], l[b], l[dst], len); break;
+                    case MUL_L: mulLong(l[a], l[b], l[dst], len); break;
+                    case DIV_L: divLong(l[a], l[b], l[dst], len); break;
+                    case POW_L: powLong(l[a], l[b], l[dst], len); break;
+                    case ADD_D: addDouble(d[a], d[b], d[dst], len); break;
+                    case SUB_D: subDouble(d[a], d[b], d[dst], len); break;
+                    case MUL_D: mulDouble(d[a], d[b], d[dst], len); break;
+                    case DIV_D: divDouble(d[a], d[b], d[dst], len); break;
+                    case POW_D: powDouble(d[a], d[b], d[dst], len); break;
+                    default: throw new IllegalStateException("Bad opcode " + code[pc]);
+                }
+            }
+        }
+    }
+
+    // ---------- Column kernels: one tight loop per operator and type ----------
+
+    private static void convert(long[] a, double[] out, int n) {
+        for (int i = 0; i < n; i++) out[i] = a[i];
+    }
+
+    private static void addLong(long[] a, long[] b, long[] out, int n) {
+        for (int i = 0; i < n; i++) out[i] = a[i] + b[i];
+    }
+
+    private static void subLong(long[] a, long[] b, long[] out, int n) {
+        for (int i = 0; i < n; i++) out[i] = a[i] - b[i];
+    }
+
+    private static void mulLong(long[] a, long[] b, long[] out, int n) {
+        for (int i = 0; i < n; i++) out[i] = a[i] * b[i];
+    }
+
+    private static void divLong(long[] a, long[] b, long[] out, int n) {
+        for (int i = 0; i < n; i++) out[i] = a[i] / b[i];
+    }
+
+    private static void powLong(long[] a, long[] b, long[] out, int n) {
+        for (int i = 0; i < n; i++) out[i] = Arithmetic.pow(a[i], b[i]);
+    }
+
+    private static void addDouble(double[] a, double[] b, double[] out, int n) {
+        for (int i = 0; i < n; i++) out[i] = a[i] + b[i];
+    }
+
+    private static void subDouble(double[] a, double[] b, double[] out, int n) {
+        for (int i = 0; i < n; i++) out[i] = a[i] - b[i];
+    }
+
+    private static void mulDouble(double[] a, double[] b, double[] out, int n) {
+        for (int i = 0; i < n; i++) out[i] = a[i] * b[i];
+    }
+
+    private static void divDouble(double[] a, double[] b, double[] out, int n) {
+        for (int i = 0; i < n; i++) out[i] = a[i] / b[i];
+    }
+
+    private static void powDouble(double[] a, double[] b, double[] out, int n) {
+        for (int i = 0; i < n; i++) out[i] = Math.pow(a[i], b[i]);
+    }
+}
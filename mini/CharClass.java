@@ -0,0 +1,137 @@
+package mini;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteOrder;
+
+/**
+ * COSC3127 Programming Languages - Assignment 1
+ * Lexical Analyzer
+ * ASCII character-class table used by the Lexer's fast path.
+ * Instead of stepping a DFA (or calling Character.isWhitespace) once per
+ * character, the Lexer asks for the end of a whole run of whitespace,
+ * identifier or digit characters and only hands token boundaries on.
+ * Characters outside ASCII are never in a class here; the Lexer falls
+ * back to the scalar checks for those so results stay identical.
+ *
+ * Byte runs are scanned eight bytes at a time (SWAR): each class is a few
+ * byte ranges, and a range test on all eight bytes of a long is a couple
+ * of subtractions on the word with every byte's high bit set, which can
+ * never borrow into the next byte. The first byte outside the class is
+ * then the lowest set high bit. The table loop handles the last few bytes
+ * and String input.
+ */
+final class CharClass {
+
+    static final byte WHITESPACE = 1;
+    static final byte IDENT_START = 2;
+    static final byte IDENT_PART = 4;
+    static final byte DIGIT = 8;
+
+    private static final byte[] TABLE = new byte[128];
+
+    private static final VarHandle LONGS =
+            MethodHandles.byteArrayViewVarHandle(long[].class, ByteOrder.LITTLE_ENDIAN);
+    private static final long ONES = 0x0101010101010101L; // 1 in every byte
+    private static final long HIGH_BITS = 0x8080808080808080L; // high bit of every byte
+
+    static {
+        for (char c = 0; c < 128; c++) {
+            // Same answer as Character.isWhitespace for every ASCII character
+            if (Character.isWhitespace(c)) TABLE[c] |= WHITESPACE;
+        }
+        for (char c = 'a'; c <= 'z'; c++) TABLE[c] |= IDENT_START | IDENT_PART;
+        for (char c = 'A'; c <= 'Z'; c++) TABLE[c] |= IDENT_START | IDENT_PART;
+        TABLE['_'] |= IDENT_START | IDENT_PART;
+        for (char c = '0'; c <= '9'; c++) TABLE[c] |= IDENT_PART | DIGIT;
+    }
+
+    private CharClass() {
+    }
+
+    /**
+     * Check whether a character belongs to any of the given classes
+     * @param c The character to classify
+     * @param mask One or more class bits OR-ed together
+     * @return true if c is ASCII and in one of the classes
+     */
+    static boolean is(char c, byte mask) {
+        return c < 128 && (TABLE[c] & mask) != 0;
+    }
+
+    /**
+     * Find the end of a run of characters in the given class
+     * @param src The source string
+     * @param from Index of the first character to test
+     * @param mask One or more class bits OR-ed together
+     * @return Index of the first character not in the class (or src.length())
+     */
+    static int runEnd(String src, int from, byte mask) {
+        int end = src.length();
+        int i = from;
+        while (i < end) {
+            char c = src.charAt(i);
+            if (c >= 128 || (TABLE[c] & mask) == 0) break;
+            i++;
+        }
+        return i;
+    }
+
+    /**
+     * Find the end of a run of bytes in the given class (byte-mode Lexer)
+     * @param src The raw source bytes
+     * @param from Index of the first byte to test
+     * @param mask One or more class bits OR-ed together
+     * @return Index of the first byte not in the class (or src.length)
+     */
+    static int runEnd(byte[] src, int from, byte mask) {
+        int end = src.length;
+        int i = from;
+        while (i + Long.BYTES <= end) {
+            long word = (long) LONGS.get(src, i);
+            long outside = ~inClass(word, mask) & HIGH_BITS;
+            if (outside != 0) {
+                return i + (Long.numberOfTrailingZeros(outside) >>> 3);
+            }
+            i += Long.BYTES;
+        }
+        while (i < end) {
+            int b = src[i];
+            if (b < 0 || (TABLE[b] & mask) == 0) break;
+            i++;
+        }
+        return i;
+    }
+
+    /**
+     * Classify eight bytes at once; must agree with TABLE.
+     * @return High bit set in each byte of word that is in one of the classes
+     */
+    private static long inClass(long word, byte mask) {
+        long in = 0;
+        if ((mask & WHITESPACE) != 0) {
+            in |= between(word, '\t', '\r') | between(word, 0x1C, ' ');
+        }
+        if ((mask & (IDENT_START | IDENT_PART)) != 0) {
+            in |= between(word | 0x20 * ONES, 'a', 'z') | equal(word, '_'); // | 0x20 folds A-Z to a-z
+        }
+        if ((mask & (IDENT_PART | DIGIT)) != 0) {
+            in |= between(word, '0', '9');
+        }
+        return in;
+    }
+
+    // High bit set in each byte of word within [lo, hi]; bytes >= 128 never are
+    private static long between(long word, int lo, int hi) {
+        long biased = word | HIGH_BITS;
+        long atLeastLo = biased - lo * ONES;
+        long aboveHi = biased - (hi + 1) * ONES;
+        return atLeastLo & ~aboveHi & ~word & HIGH_BITS;
+    }
+
+    // High bit set in each byte of word equal to c (exact, no false positives)
+    private static long equal(long word, int c) {
+        long x = word ^ (c * ONES);
+        return ~(((x & ~HIGH_BITS) + ~HIGH_BITS) | x | ~HIGH_BITS);
+    }
+}
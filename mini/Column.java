@@ -0,0 +1,48 @@
+package mini;
+
+/**
+ * COSC3127 Programming Languages - Assignment 1
+ *
+ * One column of values for batch evaluation: either integer values
+ * (long[]) or real values (double[]). The arrays are used as-is, not copied.
+ */
+public final class Column {
+
+    private final long[] longs;
+    private final double[] doubles;
+
+    private Column(long[] longs, double[] doubles) {
+        this.longs = longs;
+        this.doubles = doubles;
+    }
+
+    public static Column ofLongs(long[] values) {
+        return new Column(values, null);
+    }
+
+    public static Column ofDoubles(double[] values) {
+        return new Column(null, values);
+    }
+
+    public boolean isReal() {
+        return doubles != null;
+    }
+
+    public int size() {
+        return doubles != null ? doubles.length : longs.length;
+    }
+
+    public long[] longs() {
+        if (longs == null) {
+            throw new IllegalStateException("Column holds real values");
+        }
+        return longs;
+    }
+
+    public double[] doubles() {
+        if (doubles == null) {
+            throw new IllegalStateException("Column holds integer values");
+        }
+        return doubles;
+    }
+}
@@ -10,7 +10,9 @@ package mini;
  * we want to use? I'll keep it for now, but please let me know if you want to change it, I'll try to
  * remember to ask you next time.**/
 
+import java.util.Arrays;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.Set;
 import java.util.HashSet;
@@ -96,7 +98,45 @@ public class DFA {
         }
         return lastAcceptIndex; // Return the index of the last accepted character, or -1 if none
    }
-   
+
+    /** Compile the DFA into an immutable array-based table
+     * The start state becomes state 0. Later addTransition() calls do not
+     * affect a table that was already compiled.
+     * @return DfaTable with the same language as this DFA
+     * @throws IllegalStateException if a transition is on a non-ASCII character
+    */
+    public DfaTable compile() {
+        Map<String, Integer> ids = new LinkedHashMap<>();
+        ids.put(startState, 0);
+        for (Map.Entry<String, Map<Character, String>> e : transitionTable.entrySet()) {
+            ids.putIfAbsent(e.getKey(), ids.size());
+            for (String to : e.getValue().values()) {
+                ids.putIfAbsent(to, ids.size());
+            }
+        }
+
+        int[] next = new int[ids.size() * DfaTable.ALPHABET];
+        Arrays.fill(next, -1);
+        for (Map.Entry<String, Map<Character, String>> e : transitionTable.entrySet()) {
+            int from = ids.get(e.getKey());
+            for (Map.Entry<Character, String> t : e.getValue().entrySet()) {
+                char c = t.getKey();
+                if (c >= DfaTable.ALPHABET) {
+                    throw new IllegalStateException("Transition on non-ASCII character " + (int) c);
+                }
+                next[from * DfaTable.ALPHABET + c] = ids.get(t.getValue());
+            }
+        }
+
+        boolean[] accepting = new boolean[ids.size()];
+        String[] labels = new String[ids.size()];
+        for (Map.Entry<String, Integer> e : ids.entrySet()) {
+            accepting[e.getValue()] = acceptStates.contains(e.getKey());
+            labels[e.getValue()] = e.getKey();
+        }
+        return new DfaTable(next, accepting, labels);
+    }
+
    /**
     * Creates Identifier DFA
     * Pattern:[a-zA-Z_][A-Za-z0-9_]*
@@ -233,21 +273,27 @@ public class DFA {
 
     /** Operator DFA
      * Pattern: + - * / ^
+     * Each operator has its own accept state, named after its token kind
+     * (Token.Type), so the Lexer can tell the operators apart by state.
      * @return DFA for Operators
      */
     public static DFA createOperatorDFA() {
         String startState = "START";
         Set<String> acceptStates = new HashSet<>();
-        acceptStates.add("OPERATOR");
+        acceptStates.add("PLUS");
+        acceptStates.add("MINUS");
+        acceptStates.add("STAR");
+        acceptStates.add("SLASH");
+        acceptStates.add("CARET");
 
         DFA operatorDFA = new DFA(startState, acceptStates, new HashMap<>());
 
-        // From START state, each operator goes to OPERATOR state
-        operatorDFA.addTransition("START", '+', "OPERATOR");
-        operatorDFA.addTransition("START", '-', "OPERATOR");
-        operatorDFA.addTransition("START", '*', "OPERATOR");
-        operatorDFA.addTransition("START", '/', "OPERATOR");
-        operatorDFA.addTransition("START", '^', "OPERATOR");
+        // From START state, each operator goes to its own accept state
+        operatorDFA.addTransition("START", '+', "PLUS");
+        operatorDFA.addTransition("START", '-', "MINUS");
+        operatorDFA.addTransition("START", '*', "STAR");
+        operatorDFA.addTransition("START", '/', "SLASH");
+        operatorDFA.addTransition("START", '^', "CARET");
 
         return operatorDFA;
     }
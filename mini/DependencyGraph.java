@@ -0,0 +1,152 @@
+package mini;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * COSC3127 Programming Languages - Assignment 1
+ *
+ * Data-dependency DAG over the statements of a program.
+ *
+ * Node i is the i-th assignment. There is an edge i -> j (i before j) if
+ *   - j reads a variable whose latest write before j is i (read after write)
+ *   - j writes a variable that i read since its previous write (write after read)
+ *   - j writes the variable last written by i (write after write)
+ * Statements with no path between them may run in any order, or at the
+ * same time, and still give exactly the sequential results.
+ */
+public final class DependencyGraph {
+
+    private final int[][] successors;
+    private final int[] predecessorCounts;
+    private final int criticalPathLength;
+
+    private DependencyGraph(int[][] successors, int[] predecessorCounts) {
+        this.successors = successors;
+        this.predecessorCounts = predecessorCounts;
+        this.criticalPathLength = longestPath();
+    }
+
+    /**
+     * Build the dependency graph of a program.
+     * @param program The program
+     * @return Its statement dependency graph
+     */
+    public static DependencyGraph build(ProgramNode program) {
+        List<StatementNode> statements = program.getStatements();
+        int n = statements.size();
+
+        Map<String, Integer> lastWriter = new HashMap<>();
+        Map<String, List<Integer>> readersSinceWrite = new HashMap<>();
+        List<List<Integer>> succ = new ArrayList<>(n);
+        int[] preds = new int[n];
+        int[] lastEdgeFrom = new int[n]; // dedup: last j an edge from i was added for
+        Arrays.fill(lastEdgeFrom, -1);
+
+        Set<String> reads = new HashSet<>();
+        for (int j = 0; j < n; j++) {
+            succ.add(new ArrayList<>());
+            StatementNode stmt = statements.get(j);
+
+            reads.clear();
+            Liveness.addUses(stmt, reads);
+            for (String v : reads) {
+                Integer w = lastWriter.get(v);
+                if (w != null) {
+                    addEdge(w, j, succ, preds, lastEdgeFrom); // RAW
+                }
+            }
+
+            String target = Liveness.target(stmt);
+            Integer w = lastWriter.get(target);
+            if (w != null) {
+                addEdge(w, j, succ, preds, lastEdgeFrom); // WAW
+            }
+            List<Integer> readers = readersSinceWrite.remove(target);
+            if (readers != null) {
+                for (int r : readers) {
+                    if (r != j) {
+                        addEdge(r, j, succ, preds, lastEdgeFrom); // WAR
+                    }
+                }
+            }
+
+            for (String v : reads) {
+                if (!v.equals(target)) {
+                    readersSinceWrite.computeIfAbsent(v, k -> new ArrayList<>()).add(j);
+                }
+            }
+            lastWriter.put(target, j);
+        }
+
+        int[][] successors = new int[n][];
+        for (int i = 0; i < n; i++) {
+            List<Integer> s = succ.get(i);
+            successors[i] = new int[s.size()];
+            for (int k = 0; k < s.size(); k++) {
+                successors[i][k] = s.get(k);
+            }
+        }
+        return new DependencyGraph(successors, preds);
+    }
+
+    private static void addEdge(int from, int to, List<List<Integer>> succ, int[] preds, int[] lastEdgeFrom) {
+        if (lastEdgeFrom[from] == to) {
+            return;
+        }
+        lastEdgeFrom[from] = to;
+        succ.get(from).add(to);
+        preds[to]++;
+    }
+
+    // Edges always point forward, so one pass in statement order suffices
+    private int longestPath() {
+        int n = successors.length;
+        int[] depth = new int[n];
+        int longest = 0;
+        for (int i = 0; i < n; i++) {
+            depth[i] = Math.max(depth[i], 1);
+            longest = Math.max(longest, depth[i]);
+            for (int j : successors[i]) {
+                depth[j] = Math.max(depth[j], depth[i] + 1);
+            }
+        }
+        return longest;
+    }
+
+    /** @return Number of statements (nodes) */
+    public int size() {
+        return successors.length;
+    }
+
+    /** @return Statements that must wait for statement i */
+    public int[] getSuccessors(int i) {
+        return successors[i].clone();
+    }
+
+    /** @return Number of statements statement i must wait for */
+    public int getPredecessorCount(int i) {
+        return predecessorCounts[i];
+    }
+
+    /**
+     * Length, in statements, of the longest dependency chain. size() divided
+     * by this is the best speedup any parallel schedule can reach.
+     */
+    public int getCriticalPathLength() {
+        return criticalPathLength;
+    }
+
+    int[][] successors() {
+        return successors;
+    }
+
+    int[] predecessorCounts() {
+        return predecessorCounts;
+    }
+}
@@ -0,0 +1,85 @@
+package mini;
+
+/**
+ * COSC3127 Programming Languages - Assignment 1
+ * Lexical Analyzer
+ * Immutable, array-based form of a DFA over the ASCII alphabet
+ * (see DFA.compile()).
+ * States are numbered from 0 (the start state) and the transition
+ * function is one flat int[] indexed by state * 128 + character, so a
+ * step is a single array load instead of two HashMap lookups. Nothing can
+ * change after construction, so one instance is safely shared by every
+ * Lexer on every thread.
+ */
+public final class DfaTable {
+
+    static final int ALPHABET = 128;
+
+    private final int[] next; // next[state * ALPHABET + c] = next state, or -1
+    private final boolean[] accepting;
+    private final String[] labels; // Name of each state in the source DFA
+
+    DfaTable(int[] next, boolean[] accepting, String[] labels) {
+        this.next = next;
+        this.accepting = accepting;
+        this.labels = labels;
+    }
+
+    /**
+     * One transition from a state.
+     * @param state Current state (0 is the start state)
+     * @param c Input character
+     * @return The next state, or -1 if there is no transition
+     */
+    public int next(int state, char c) {
+        return c < ALPHABET ? next[state * ALPHABET + c] : -1;
+    }
+
+    /**
+     * @param state A state
+     * @return The state's name if it is an accept state, null otherwise
+     */
+    public String acceptLabel(int state) {
+        return accepting[state] ? labels[state] : null;
+    }
+
+    /** Longest accepted prefix of input starting at startIndex
+     * @param input The input string
+     * @param startIndex Index to start matching at
+     * @return The length of the longest accepted prefix, or -1 if none is accepted
+     */
+    public int matchLength(String input, int startIndex) {
+        int state = 0;
+        int lastAccept = -1;
+        for (int i = startIndex; i < input.length(); i++) {
+            char c = input.charAt(i);
+            if (c >= ALPHABET || (state = next[state * ALPHABET + c]) < 0) {
+                break;
+            }
+            if (accepting[state]) {
+                lastAccept = i - startIndex + 1;
+            }
+        }
+        return lastAccept;
+    }
+
+    /** Same as matchLength(String, int) on raw bytes
+     * @param input The raw input bytes
+     * @param startIndex Byte offset to start matching at
+     * @return The length of the longest accepted prefix, or -1 if none is accepted
+     */
+    public int matchLength(byte[] input, int startIndex) {
+        int state = 0;
+        int lastAccept = -1;
+        for (int i = startIndex; i < input.length; i++) {
+            int c = input[i];
+            if (c < 0 || (state = next[state * ALPHABET + c]) < 0) {
+                break;
+            }
+            if (accepting[state]) {
+                lastAccept = i - startIndex + 1;
+            }
+        }
+        return lastAccept;
+    }
+}
@@ -0,0 +1,19 @@
+package mini;
+
+/**
+ * COSC3127 Programming Languages - Assignment 1
+ *
+ * Bottom-up pass over an expression, run by AstWalker.fold without
+ * recursion: each node gets the results already computed for its
+ * children, so passes that build something from an expression (typed
+ * nodes, evaluator code, rewritten trees) work on arbitrarily deep ones.
+ *
+ * @param <R> Result type for each expression
+ */
+interface ExpressionFolder<R> {
+    R foldBinaryExpression(BinaryExpressionNode node, R left, R right);
+
+    R foldNumberLiteral(NumberLiteralNode node);
+
+    R foldIdentifierExpression(IdentifierExpressionNode node);
+}
@@ -0,0 +1,19 @@
+package mini;
+
+/**
+ * COSC3127 Programming Languages - Assignment 1
+ *
+ * Visitor over the expression nodes only (see ExpressionNode.accept).
+ * AstVisitor extends it with the statement and program nodes. Passes
+ * that build a result from an expression's children use ExpressionFolder
+ * instead, which AstWalker.fold runs without recursion.
+ *
+ * @param <R> Result type of the visit
+ */
+interface ExpressionVisitor<R> {
+    R visitBinaryExpression(BinaryExpressionNode node);
+
+    R visitNumberLiteral(NumberLiteralNode node);
+
+    R visitIdentifierExpression(IdentifierExpressionNode node);
+}
@@ -0,0 +1,91 @@
+package mini;
+
+/**
+ * COSC3127 Programming Languages - Assignment 1
+ * Lexical Analyzer
+ * Reserved words of the Mini language.
+ * The Lexer scans every identifier-shaped lexeme once and then asks this
+ * table whether it is a reserved word. The table is a perfect hash over
+ * (first char, last char, length), sized at class load so no two reserved
+ * words share a slot: a lookup is one probe plus one region compare and
+ * never allocates.
+ */
+final class Keywords {
+
+    /** The reserved words: the two Mini data types. */
+    static final String[] RESERVED = {"integer", "real"};
+
+    private static final String[] TABLE;
+    private static final int MASK;
+
+    static {
+        int size = 4;
+        String[] table = build(size);
+        while (table == null) {
+            size <<= 1;
+            if (size > (1 << 16)) {
+                throw new IllegalStateException("No perfect hash for the reserved words");
+            }
+            table = build(size);
+        }
+        TABLE = table;
+        MASK = size - 1;
+    }
+
+    private Keywords() {
+    }
+
+    // Returns a collision-free table of the given size, or null if there is none
+    private static String[] build(int size) {
+        String[] table = new String[size];
+        for (String word : RESERVED) {
+            int slot = hash(word.charAt(0), word.charAt(word.length() - 1), word.length()) & (size - 1);
+            if (table[slot] != null) {
+                return null;
+            }
+            table[slot] = word;
+        }
+        return table;
+    }
+
+    private static int hash(int first, int last, int length) {
+        return (first * 31 + last) * 31 + length;
+    }
+
+    /**
+     * Look up an identifier lexeme in the reserved word table
+     * @param src The source string
+     * @param start Index of the first character of the lexeme
+     * @param end Index just past the lexeme
+     * @return The reserved word, or null if the lexeme is an ordinary identifier
+     */
+    static String lookup(String src, int start, int end) {
+        int length = end - start;
+        String word = TABLE[hash(src.charAt(start), src.charAt(end - 1), length) & MASK];
+        if (word != null && word.length() == length && src.regionMatches(start, word, 0, length)) {
+            return word;
+        }
+        return null;
+    }
+
+    /**
+     * Look up an identifier lexeme in the reserved word table (byte-mode Lexer)
+     * @param src The raw source bytes
+     * @param start Index of the first byte of the lexeme
+     * @param end Index just past the lexeme
+     * @return The reserved word, or null if the lexeme is an ordinary identifier
+     */
+    static String lookup(byte[] src, int start, int end) {
+        int length = end - start;
+        String word = TABLE[hash(src[start], src[end - 1], length) & MASK];
+        if (word == null || word.length() != length) {
+            return null;
+        }
+        for (int i = 0; i < length; i++) {
+            if (src[start + i] != word.charAt(i)) {
+                return null;
+            }
+        }
+        return word;
+    }
+}
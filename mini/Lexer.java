@@ -1,5 +1,7 @@
 package mini;
 
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -8,6 +10,8 @@ import java.util.List;
  * Lexical Analyzer
  * Utilizes Explicit DFA object implimentation to tokenize
  * input source code strings. 
+ * Raw ASCII bytes can be tokenized directly as well, without decoding the
+ * input to a String first; token positions are then byte offsets.
  * Variable names must start with an alphabetic character followed by
  * alphanumeric characters or underscores.
  * No whitespace is allowed in the variable names.
@@ -16,17 +20,31 @@ import java.util.List;
 
 public class Lexer {
 
-    private final String src; // Source code to be tokenized
+    private final String src; // Source code to be tokenized (null in byte mode)
+    private final byte[] bytes; // Raw ASCII source in byte mode (null otherwise)
+    private final int length; // Length of the source in chars or bytes
+    private final LineMap lines; // Line start offsets, for positions on demand
     private int idx = 0; // Current index in the source code
-    private int line = 1; // Current line number for error reporting
-    private int col = 1; // Current column number for error reporting
 
-    //DFA Suite
-    private final DFA identifierDFA;
-    private final DFA integerDFA;
-    private final DFA realDFA;
-    private final DFA operatorDFA;
-    private final DFA assignmentDFA;
+    //DFA Suite: compiled once per JVM and shared by every Lexer (DfaTable is immutable)
+    private static final DfaTable OPERATOR_DFA = DFA.createOperatorDFA().compile();
+    private static final DfaTable ASSIGNMENT_DFA = DFA.createAssignmentOperatorDFA().compile();
+
+    // Operator token kind (and lexeme) per ASCII character, read off the accept
+    // states of OPERATOR_DFA: every operator is exactly one character long
+    private static final Token.Type[] OPERATOR_TYPES = new Token.Type[DfaTable.ALPHABET];
+    private static final String[] OPERATOR_LEXEMES = new String[DfaTable.ALPHABET];
+
+    static {
+        for (char c = 0; c < DfaTable.ALPHABET; c++) {
+            int state = OPERATOR_DFA.next(0, c);
+            String label = state >= 0 ? OPERATOR_DFA.acceptLabel(state) : null;
+            if (label != null) {
+                OPERATOR_TYPES[c] = Token.Type.valueOf(label);
+                OPERATOR_LEXEMES[c] = String.valueOf(c);
+            }
+        }
+    }
 
     /**
      * Constructor for Lexer
@@ -34,42 +52,120 @@ public class Lexer {
      */
 
     public Lexer(String src) {
+        this(src, null);
+    }
+
+    /**
+     * Constructor for Lexer in byte mode
+     * The bytes are scanned in place; any byte outside ASCII is a lexical error.
+     * @param src Raw source bytes to be tokenized
+     */
+    public Lexer(byte[] src) {
+        this(null, src);
+    }
+
+    /**
+     * Constructor for Lexer in byte mode
+     * Scans the remaining bytes of the buffer. A heap buffer that exactly
+     * covers its backing array is used in place, anything else is copied once.
+     * @param src Buffer holding the raw source bytes
+     */
+    public Lexer(ByteBuffer src) {
+        this(null, toArray(src));
+    }
+
+    /**
+     * Constructor for Lexer over one piece of a larger source
+     * Token positions are reported within the whole source (see StreamingLexer).
+     * @param src Piece of source code to be tokenized; must not split a token
+     * @param firstLine Line number at which src starts
+     * @param firstColumn Column number at which src starts
+     */
+    public Lexer(String src, int firstLine, int firstColumn) {
+        this(src, null, LineMap.of(src, firstLine, firstColumn));
+    }
+
+    private Lexer(String src, byte[] bytes) {
+        this(src, bytes, bytes != null ? LineMap.of(bytes) : LineMap.of(src));
+    }
+
+    private Lexer(String src, byte[] bytes, LineMap lines) {
         this.src = src;
+        this.bytes = bytes;
+        this.length = bytes != null ? bytes.length : src.length();
+        this.lines = lines;
+    }
+
+    private static byte[] toArray(ByteBuffer buf) {
+        if (buf.hasArray() && buf.arrayOffset() == 0 && buf.position() == 0
+                && buf.limit() == buf.array().length) {
+            return buf.array();
+        }
+        byte[] copy = new byte[buf.remaining()];
+        buf.duplicate().get(copy);
+        return copy;
+    }
 
-        // Initialize DFAs
-        this.identifierDFA = DFA.createIdentifierDFA();
-        this.integerDFA = DFA.createIntegerDFA();
-        this.realDFA = DFA.createRealDFA();
-        this.operatorDFA = DFA.createOperatorDFA();
-        this.assignmentDFA = DFA.createAssignmentOperatorDFA();
+    /**
+     * Line index of the source; tokens use it to work out line and column
+     * from their start offset.
+     * @return LineMap for the source being tokenized
+     */
+    public LineMap getLineMap() {
+        return lines;
+    }
 
+    // Character at index i; bytes are zero-extended so non-ASCII stays >= 128
+    private char charAt(int i) {
+        return bytes != null ? (char) (bytes[i] & 0xFF) : src.charAt(i);
     }
+
     // Peeks at the current character without advancing the index
     private char peek() {
-        return idx < src.length() ? src.charAt(idx) : '\0';
+        return idx < length ? charAt(idx) : '\0';
         }
 
     private char peekNext() {
-        return (idx + 1) < src.length() ? src.charAt(idx + 1) : '\0';
+        return (idx + 1) < length ? charAt(idx + 1) : '\0';
     }
 
-    private char advance() {
-        char current = peek();
-        idx++;
-        if (current == '\n') {
-            line++;
-            col = 1;
-        } else{
-            col++;
-        }
-        return current;
+    private String lexeme(int startIdx, int end) {
+        return bytes != null
+                ? new String(bytes, startIdx, end - startIdx, StandardCharsets.US_ASCII)
+                : src.substring(startIdx, end);
+    }
+
+    private int runEnd(int from, byte mask) {
+        return bytes != null
+                ? CharClass.runEnd(bytes, from, mask)
+                : CharClass.runEnd(src, from, mask);
     }
 
+    /**
+     * Skip a run of whitespace in one pass.
+     * ASCII runs are found by CharClass.runEnd (a word at a time in byte
+     * mode); other characters fall back to Character.isWhitespace so the
+     * result is unchanged. In byte mode non-ASCII is never whitespace;
+     * tokenize() reports it.
+     */
     private void skipWhitespace() {
-        while (Character.isWhitespace(peek())) {
-            advance();
+        while (idx < length) {
+            idx = runEnd(idx, CharClass.WHITESPACE);
+            if (bytes != null || idx >= length) {
+                break;
+            }
+            char c = src.charAt(idx);
+            if (c < 128 || !Character.isWhitespace(c)) {
+                break;
+            }
+            idx++;
         }
     }
+
+    // "line:col" of the current index, for lexical error messages
+    private String position() {
+        return lines.lineOf(idx) + ":" + lines.columnOf(idx);
+    }
 /**
  *  Main tokenize method using DFAs
  * @return List of tokens extracted from the source code
@@ -77,41 +173,136 @@ public class Lexer {
 
     public List<Token> tokenize() {
         List<Token> tokens = new ArrayList<>();
+        Token token;
 
-        while (idx < src.length()) {
-            skipWhitespace();
-            int startIdx = idx;
-            int startLine = line;
-            int startCol = col;
+        while ((token = nextToken()) != null) {
+            tokens.add(token);
+        }
 
-            Token token = null;
+        return tokens;
+    }
 
-            /**
-             * Try matching each DFA in order of precedence
-             */
-            token = tryMatchDFA(identifierDFA, Token.Type.IDENTIFIER, startIdx, startLine, startCol);
-            if (token == null) {
-                token = tryMatchDFA(realDFA, Token.Type.REAL, startIdx, startLine, startCol);
-            }
-            if (token == null) {
-                token = tryMatchDFA(integerDFA, Token.Type.INTEGER, startIdx, startLine, startCol);
-            }
-            if (token == null) {
-                token = tryMatchDFA(assignmentDFA, Token.Type.ASSIGNMENT, startIdx, startLine, startCol);
-            }
-            if (token == null) {
-                token = tryMatchDFA(operatorDFA, Token.Type.OPERATOR, startIdx, startLine, startCol);
+    /**
+     * Scan just the next token, for callers that consume tokens as they go
+     * (see StreamingLexer); a lexical error is thrown only when reached.
+     * @return The next token, or null at the end of the source
+     */
+    public Token nextToken() {
+        skipWhitespace();
+        if (idx >= length) {
+            return null; // Trailing whitespace, nothing left to tokenize
+        }
+        int startIdx = idx;
+
+        Token token = null;
+        char c = peek();
+
+        if (c >= 128 && bytes != null) {
+            throw new RuntimeException(String.format(
+                    "Lexical error at %s -> Non-ASCII byte 0x%02X at offset %d",
+                    position(), (int) c, idx));
+        }
+
+        /**
+         * Fast path: identifier and number lexemes are plain character runs,
+         * so find their end with the CharClass table instead of the DFAs.
+         * An identifier run is then reclassified as a keyword by one
+         * probe of the reserved word table.
+         */
+        if (CharClass.is(c, CharClass.IDENT_START)) {
+            int end = runEnd(startIdx + 1, CharClass.IDENT_PART);
+            String keyword = bytes != null
+                    ? Keywords.lookup(bytes, startIdx, end)
+                    : Keywords.lookup(src, startIdx, end);
+            if (keyword != null) {
+                idx = end;
+                token = new Token(Token.Type.KEYWORD, keyword, startIdx, lines);
+            } else {
+                token = scanRun(Token.Type.IDENTIFIER, startIdx, end);
             }
+        } else if (CharClass.is(c, CharClass.DIGIT)) {
+            token = scanNumber(startIdx);
+        } else if (c < DfaTable.ALPHABET && OPERATOR_TYPES[c] != null) {
+            idx++;
+            token = new Token(OPERATOR_TYPES[c], OPERATOR_LEXEMES[c], startIdx, lines);
+        }
+
+        /**
+         * Identifiers, numbers and operators are all recognized above; the
+         * assignment operator is the one token still matched by its DFA
+         */
+        if (token == null) {
+            token = tryMatchDFA(ASSIGNMENT_DFA, Token.Type.ASSIGNMENT, startIdx);
+        }
+
+        if (token == null) {
+            throw new RuntimeException("Lexical error at " + position() + 
+                                 " -> Illegal character: '" + peek() + "'"); //No DFA matched - illegal character error
+        }
+        return token;
+    }
+
+    /**
+     * Scan an integer or real literal starting at a digit, converting it
+     * to its value while the digits go by (no substring is made).
+     * Same maximal munch as DFA.createRealDFA() / createIntegerDFA(): [0-9]+ optionally followed
+     * by '.' and at least one more digit.
+     * @param startIdx The starting index in the source code
+     * @return An INTEGER or REAL token
+     */
+    private Token scanNumber(int startIdx) {
+        int i = startIdx;
+        long value = 0;
+        boolean overflow = false;
+        char c;
 
-            if (token != null) {
-                tokens.add(token);
+        while (i < length && CharClass.is(c = charAt(i), CharClass.DIGIT)) {
+            int digit = c - '0';
+            if (value > (Long.MAX_VALUE - digit) / 10) {
+                overflow = true;
             } else {
-                throw new RuntimeException(String.format("Lexical error at " + line + ":" + col + 
-                                     " -> Illegal character: '" + peek() + "'")); //No DFA matched - illegal character error
+                value = value * 10 + digit;
             }
+            i++;
         }
 
-        return tokens;
+        if (i + 1 < length && charAt(i) == '.'
+                && CharClass.is(charAt(i + 1), CharClass.DIGIT)) {
+            // Keep reading digits into the same mantissa while it stays exact
+            boolean exact = !overflow && value <= NumberLiterals.MAX_EXACT_MANTISSA;
+            int fractionStart = ++i;
+            while (i < length && CharClass.is(c = charAt(i), CharClass.DIGIT)) {
+                int digit = c - '0';
+                if (exact && value > (NumberLiterals.MAX_EXACT_MANTISSA - digit) / 10) {
+                    exact = false;
+                } else if (exact) {
+                    value = value * 10 + digit;
+                }
+                i++;
+            }
+            int fractionDigits = i - fractionStart;
+
+            double real = exact && NumberLiterals.hasFastPath(value, fractionDigits)
+                    ? NumberLiterals.fastReal(value, fractionDigits)
+                    : Double.parseDouble(lexeme(startIdx, i));
+            idx = i;
+            return new Token(real, startIdx, lines);
+        }
+
+        if (overflow) {
+            throw new RuntimeException("Lexical error at " + position()
+                    + " -> Integer literal out of range: " + lexeme(startIdx, i));
+        }
+        idx = i;
+        return new Token(value, startIdx, lines);
+    }
+
+    /**
+     * Build a token for a run found by the fast path.
+     */
+    private Token scanRun(Token.Type type, int startIdx, int end) {
+        idx = end;
+        return new Token(type, lexeme(startIdx, end), startIdx, lines);
     }
 
     /**
@@ -119,29 +310,18 @@ public class Lexer {
      * @param dfa The DFA to use for matching
      * @param type The token type to create if match is successful
      * @param startIdx The starting index in the source code
-     * @param startLine The starting line number
-     * @param startCol The starting column number
      * @return A Token if match is successful, null otherwise
      */
-    private Token tryMatchDFA(DFA dfa, Token.Type type, int startIdx, int startLine, int startCol) {
-        int matchLen = dfa.matchLength(src, startIdx);
+    private Token tryMatchDFA(DfaTable dfa, Token.Type type, int startIdx) {
+        int matchLen = bytes != null
+                ? dfa.matchLength(bytes, startIdx)
+                : dfa.matchLength(src, startIdx);
         
         if (matchLen > 0) {
-            String lexeme = src.substring(startIdx, startIdx + matchLen);
+            String lexeme = lexeme(startIdx, startIdx + matchLen);
             idx = startIdx + matchLen; // Advance index by match length
             
-            // Update line and column tracking
-            for (int i = 0; i < matchLen; i++) {
-                char c = src.charAt(startIdx + i);
-                if (c == '\n') {
-                    line++;
-                    col = 1;
-                } else {
-                    col++;
-                }
-            }
-            
-            return new Token(type, lexeme, startLine, startCol);
+            return new Token(type, lexeme, startIdx, lines);
         }
         
         return null; // No match found
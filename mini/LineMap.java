@@ -0,0 +1,107 @@
+package mini;
+
+import java.util.Arrays;
+
+/**
+ * COSC3127 Programming Languages - Assignment 1
+ * Lexical Analyzer
+ * Index of line start offsets for one source, built in a single pass.
+ * The Lexer only records where each token starts; line and column are
+ * worked out from that offset by binary search when someone asks
+ * (Token.getLine()/getColumn(), error messages).
+ * Lines are split on '\n' and columns count chars (bytes in byte mode),
+ * both starting at 1.
+ */
+public final class LineMap {
+
+    private final int[] lineStarts; // lineStarts[i] = offset of the first char of line i + firstLine
+    private final int lineCount;
+    private final int firstLine; // line number of offset 0
+    private final int firstColumn; // column number of offset 0
+
+    private LineMap(int[] lineStarts, int lineCount, int firstLine, int firstColumn) {
+        this.lineStarts = lineStarts;
+        this.lineCount = lineCount;
+        this.firstLine = firstLine;
+        this.firstColumn = firstColumn;
+    }
+
+    /**
+     * Build the line index for a source string
+     * @param src The source code
+     * @return LineMap for src
+     */
+    public static LineMap of(String src) {
+        return of(src, 1, 1);
+    }
+
+    /**
+     * Build the line index for a piece of a larger source
+     * @param src The piece of source code
+     * @param firstLine Line number at which src starts
+     * @param firstColumn Column number at which src starts
+     * @return LineMap for src, reporting positions within the whole source
+     */
+    public static LineMap of(String src, int firstLine, int firstColumn) {
+        int[] starts = new int[16];
+        int count = 1;
+        for (int i = src.indexOf('\n'); i >= 0; i = src.indexOf('\n', i + 1)) {
+            if (count == starts.length) {
+                starts = Arrays.copyOf(starts, count * 2);
+            }
+            starts[count++] = i + 1;
+        }
+        return new LineMap(starts, count, firstLine, firstColumn);
+    }
+
+    /**
+     * Build the line index for raw source bytes
+     * @param src The source code bytes
+     * @return LineMap for src
+     */
+    public static LineMap of(byte[] src) {
+        int[] starts = new int[16];
+        int count = 1;
+        for (int i = 0; i < src.length; i++) {
+            if (src[i] == '\n') {
+                if (count == starts.length) {
+                    starts = Arrays.copyOf(starts, count * 2);
+                }
+                starts[count++] = i + 1;
+            }
+        }
+        return new LineMap(starts, count, 1, 1);
+    }
+
+    /**
+     * @param offset Index into the source
+     * @return 1-based line number containing offset
+     */
+    public int lineOf(int offset) {
+        return lineIndex(offset) + firstLine;
+    }
+
+    /**
+     * @param offset Index into the source
+     * @return 1-based column of offset within its line
+     */
+    public int columnOf(int offset) {
+        int i = lineIndex(offset);
+        int column = offset - lineStarts[i] + 1;
+        return i == 0 ? column + firstColumn - 1 : column;
+    }
+
+    private int lineIndex(int offset) {
+        int lo = 0;
+        int hi = lineCount - 1;
+        while (lo < hi) {
+            int mid = (lo + hi + 1) >>> 1;
+            if (lineStarts[mid] <= offset) {
+                lo = mid;
+            } else {
+                hi = mid - 1;
+            }
+        }
+        return lo;
+    }
+}
@@ -0,0 +1,162 @@
+package mini;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * COSC3127 Programming Languages - Assignment 1
+ *
+ * Backward liveness analysis and dead-store elimination.
+ *
+ * Walking the statements from last to first, a variable is live if its
+ * current value may still be read: by a later statement or because it is
+ * a program output. An assignment to a variable that is not live at that
+ * point is a dead store and is dropped; every other assignment kills its
+ * target and makes the variables its expression reads live.
+ *
+ * Mini expressions have no side effects, so dropping a dead store does
+ * not change any output. The only observable difference is that a
+ * division by zero inside a dropped statement is no longer raised.
+ */
+public final class Liveness {
+
+    /**
+     * Outcome of dead-store elimination.
+     */
+    public static final class Result {
+        private final ProgramNode program;
+        private final List<StatementNode> removed;
+
+        Result(ProgramNode program, List<StatementNode> removed) {
+            this.program = program;
+            this.removed = Collections.unmodifiableList(removed);
+        }
+
+        /** @return The program without its dead stores */
+        public ProgramNode getProgram() {
+            return program;
+        }
+
+        /** @return The dropped assignments, in source order */
+        public List<StatementNode> getRemoved() {
+            return removed;
+        }
+    }
+
+    private Liveness() {
+    }
+
+    /**
+     * Eliminate dead stores, treating the final value of every assigned
+     * variable as an output. Only overwritten-before-read stores go.
+     * @param program The program to optimize
+     * @return The optimized program and the removed assignments
+     */
+    public static Result eliminateDeadStores(ProgramNode program) {
+        Set<String> outputs = new HashSet<>();
+        for (StatementNode stmt : program.getStatements()) {
+            outputs.add(target(stmt));
+        }
+        return eliminateDeadStores(program, outputs);
+    }
+
+    /**
+     * Eliminate dead stores.
+     * @param program The program to optimize
+     * @param outputs Variables whose final values are the program's outputs
+     * @return The optimized program and the removed assignments
+     */
+    public static Result eliminateDeadStores(ProgramNode program, Set<String> outputs) {
+        List<StatementNode> statements = program.getStatements();
+        boolean[] dead = new boolean[statements.size()];
+        Set<String> live = new HashSet<>(outputs);
+
+        for (int i = statements.size() - 1; i >= 0; i--) {
+            StatementNode stmt = statements.get(i);
+            if (!live.remove(target(stmt))) {
+                dead[i] = true;
+                continue;
+            }
+            addUses(stmt, live);
+        }
+
+        List<StatementNode> kept = new ArrayList<>();
+        List<StatementNode> removed = new ArrayList<>();
+        for (int i = 0; i < statements.size(); i++) {
+            if (dead[i]) {
+                removed.add(statements.get(i));
+            } else {
+                kept.add(statements.get(i));
+            }
+        }
+
+        if (removed.isEmpty()) {
+            return new Result(program, removed);
+        }
+        return new Result(new ProgramNode(kept, program), removed);
+    }
+
+    /**
+     * @return The variable a statement writes
+     */
+    static String target(StatementNode stmt) {
+        return stmt.accept(TARGET);
+    }
+
+    /**
+     * Add every variable read by a statement to the given set.
+     */
+    static void addUses(StatementNode stmt, Set<String> uses) {
+        addUses(stmt.accept(VALUE), uses);
+    }
+
+    private static final StatementVisitor<String> TARGET = AssignmentNode::getIdentifier;
+
+    // Expression whose value the statement stores
+    private static final StatementVisitor<ExpressionNode> VALUE = AssignmentNode::getExpression;
+
+    /**
+     * Add every variable read by an expression to the given set.
+     */
+    static void addUses(ExpressionNode expr, Set<String> uses) {
+        UseCollector collector = new UseCollector(uses);
+        AstWalker.preOrder(expr, (node, depth) -> node.accept(collector));
+    }
+
+    private static final class UseCollector implements AstVisitor<Void> {
+        private final Set<String> uses;
+
+        UseCollector(Set<String> uses) {
+            this.uses = uses;
+        }
+
+        @Override
+        public Void visitIdentifierExpression(IdentifierExpressionNode node) {
+            uses.add(node.getName());
+            return null;
+        }
+
+        @Override
+        public Void visitProgram(ProgramNode node) {
+            return null;
+        }
+
+        @Override
+        public Void visitAssignment(AssignmentNode node) {
+            return null;
+        }
+
+        @Override
+        public Void visitBinaryExpression(BinaryExpressionNode node) {
+            return null;
+        }
+
+        @Override
+        public Void visitNumberLiteral(NumberLiteralNode node) {
+            return null;
+        }
+    }
+}
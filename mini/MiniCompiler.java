@@ -1,7 +1,20 @@
 package mini;
 
+import java.io.BufferedOutputStream;
+import java.io.BufferedReader;
+import java.io.FileDescriptor;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.PrintStream;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
 import java.util.List;
 import java.util.Scanner;
+import java.util.concurrent.ForkJoinPool;
 
 /**
  * COSC3127 Programming Languages - Assignment 1
@@ -11,10 +24,58 @@ import java.util.Scanner;
  *  - runs the Lexer (Phase 1)
  *  - runs the Parser (Phase 2)
  *  - prints the resulting AST
+ *
+ * Project mode: "--project <directory|manifest>" compiles every file of
+ * the project in parallel and prints one aggregate report
+ * (see ProjectCompiler). The exit status is 0 if every file compiled,
+ * 1 if any file failed and 2 if the project could not be read.
+ *
+ * Streaming mode: "--stream [file]" compiles a file (or standard input)
+ * one statement at a time. StreamingLexer holds one chunk of source text
+ * (about 64K chars) and scans tokens only as the parser asks for them;
+ * parsing and printing hold a single statement, which is dropped once
+ * printed. Memory is bounded by one chunk plus the largest statement
+ * instead of the program size. The output is the same as the default
+ * mode's. On an error, the statements before it have already been
+ * printed, except the one the parser was finishing when it reached the
+ * error.
  */
 public class MiniCompiler {
 
     public static void main(String[] args) {
+        if (args.length > 0 && args[0].equals("--project")) {
+            if (args.length != 2) {
+                System.err.println("Usage: MiniCompiler --project <directory|manifest>");
+                System.exit(2);
+            }
+            int status;
+            try {
+                ProjectCompiler compiler = new ProjectCompiler(ForkJoinPool.commonPool());
+                status = compiler.run(Paths.get(args[1]), System.out) ? 0 : 1;
+            } catch (IOException | UncheckedIOException e) {
+                System.err.println("Cannot read project " + args[1] + ": " + e.getMessage());
+                status = 2;
+            }
+            System.out.flush();
+            System.exit(status);
+        }
+
+        if (args.length > 0 && args[0].equals("--stream")) {
+            if (args.length > 2) {
+                System.err.println("Usage: MiniCompiler --stream [file]");
+                return;
+            }
+            try (Reader in = args.length == 2
+                    ? Files.newBufferedReader(Paths.get(args[1]), StandardCharsets.UTF_8)
+                    : new BufferedReader(new InputStreamReader(System.in, StandardCharsets.UTF_8))) {
+                stream(in);
+            } catch (IOException | UncheckedIOException e) {
+                System.err.println("Cannot read " + (args.length == 2 ? args[1] : "standard input")
+                        + ": " + e.getMessage());
+            }
+            return;
+        }
+
         String sourceCode;
 
         if (args.length > 0) {
@@ -54,4 +115,33 @@ public class MiniCompiler {
             System.err.println("Compilation error: " + e.getMessage());
         }
     }
+
+    /**
+     * Lex, parse and print a program one statement at a time.
+     * @param in The program source
+     */
+    private static void stream(Reader in) {
+        // Buffered, unlike System.out, which flushes on every line
+        PrintStream out = new PrintStream(
+                new BufferedOutputStream(new FileOutputStream(FileDescriptor.out), 1 << 16), false);
+        try {
+            Parser parser = new Parser(new StreamingLexer(in));
+            out.println("=== Abstract Syntax Tree ===");
+            out.println("Program");
+
+            StatementNode statement;
+            while ((statement = parser.nextStatement()) != null) {
+                ASTPrinter.printStatement(statement, out);
+            }
+            out.println("\nProgram is syntactically correct.");
+            out.flush();
+
+        } catch (UncheckedIOException e) {
+            out.flush();
+            throw e;
+        } catch (RuntimeException e) {
+            out.flush();
+            System.err.println("Compilation error: " + e.getMessage());
+        }
+    }
 }
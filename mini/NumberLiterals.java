@@ -0,0 +1,53 @@
+package mini;
+
+import java.math.BigDecimal;
+
+/**
+ * COSC3127 Programming Languages - Assignment 1
+ * Lexical Analyzer
+ * Conversion of number literals to primitives, used by the Lexer while it
+ * scans the digits, and back to text for printing.
+ *
+ * Reals use Clinger's fast path: when all the digits of the literal form
+ * an integer m < 2^53 and there are at most 22 fraction digits, both m and
+ * 10^k are exact doubles, so the single IEEE division m / 10^k is already
+ * correctly rounded. Any other literal falls back to Double.parseDouble.
+ */
+final class NumberLiterals {
+
+    /** Largest mantissa that is exactly representable as a double. */
+    static final long MAX_EXACT_MANTISSA = 1L << 53;
+
+    private static final double[] POWERS_OF_TEN = {
+        1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11,
+        1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22
+    };
+
+    private NumberLiterals() {
+    }
+
+    /**
+     * @param mantissa All digits of the literal read as one integer
+     * @param fractionDigits Number of digits after the '.'
+     * @return true if fastReal() gives the correctly rounded value
+     */
+    static boolean hasFastPath(long mantissa, int fractionDigits) {
+        return mantissa <= MAX_EXACT_MANTISSA && fractionDigits < POWERS_OF_TEN.length;
+    }
+
+    /**
+     * Value of a real literal on the fast path (see hasFastPath).
+     */
+    static double fastReal(long mantissa, int fractionDigits) {
+        return mantissa / POWERS_OF_TEN[fractionDigits];
+    }
+
+    /**
+     * Source form of a real value: plain decimal digits, never an exponent,
+     * and always with a fraction part, so it lexes back to the same value.
+     */
+    static String format(double value) {
+        String text = BigDecimal.valueOf(value).toPlainString();
+        return text.indexOf('.') >= 0 ? text : text + ".0";
+    }
+}
@@ -0,0 +1,41 @@
+package mini;
+
+/**
+ * COSC3127 Programming Languages - Assignment 1
+ *
+ * Binary arithmetic operators, one per operator token kind.
+ */
+public enum Operator {
+    PLUS("+"),
+    MINUS("-"),
+    STAR("*"),
+    SLASH("/"),
+    CARET("^");
+
+    private final String symbol;
+
+    Operator(String symbol) {
+        this.symbol = symbol;
+    }
+
+    /** @return The operator as written in Mini source */
+    public String getSymbol() {
+        return symbol;
+    }
+
+    /**
+     * @param type An operator token kind
+     * @return The operator that token denotes
+     */
+    public static Operator of(Token.Type type) {
+        switch (type) {
+            case PLUS: return PLUS;
+            case MINUS: return MINUS;
+            case STAR: return STAR;
+            case SLASH: return SLASH;
+            case CARET: return CARET;
+            default:
+                throw new IllegalArgumentException("Not an operator token: " + type);
+        }
+    }
+}
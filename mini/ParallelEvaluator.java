@@ -0,0 +1,162 @@
+package mini;
+
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+/**
+ * COSC3127 Programming Languages - Assignment 1
+ *
+ * Runs the statements of a typed program concurrently on a fork-join
+ * pool, following its DependencyGraph.
+ *
+ * Every statement waits until all its predecessors have run. When a
+ * statement finishes it releases its successors: all but one are forked,
+ * and the last one runs next on the same thread, so a dependency chain
+ * stays on one worker and only real branching pays for a fork.
+ * Dependencies order every pair of statements that touch the same
+ * variable, so the final frame is exactly the one sequential run()
+ * produces.
+ *
+ * If statements fail (with any Throwable, StackOverflowError included),
+ * the error of the earliest failing one in program order is rethrown, as
+ * a sequential run would. Once a failure is seen, statements after it in
+ * program order are skipped. A later statement that does not depend on
+ * the failing one may already have run by then, so on the error path the
+ * frame can hold results that a sequential run would not have written.
+ * Every statement before the failing one has run.
+ */
+public class ParallelEvaluator {
+
+    private final TypedProgram program;
+    private final DependencyGraph graph;
+    private final ForkJoinPool pool;
+
+    /**
+     * @param program The typed program
+     * @param graph Dependency graph of the same program (same statement order)
+     * @param pool Pool to run statements on
+     */
+    public ParallelEvaluator(TypedProgram program, DependencyGraph graph, ForkJoinPool pool) {
+        if (program.getStatements().size() != graph.size()) {
+            throw new IllegalArgumentException("Dependency graph has " + graph.size()
+                    + " statements, program has " + program.getStatements().size());
+        }
+        this.program = program;
+        this.graph = graph;
+        this.pool = pool;
+    }
+
+    /**
+     * Run the program on one frame (see TypedProgram.run).
+     * @param ints Integer variable slots
+     * @param reals Real variable slots
+     */
+    public void run(long[] ints, double[] reals) {
+        Run run = new Run(ints, reals);
+        int n = graph.size();
+        for (int i = 0; i < n; i++) {
+            if (graph.predecessorCounts()[i] == 0) {
+                pool.execute(new StatementTask(run, i));
+            }
+        }
+
+        try {
+            // A managed block, so that when run() is called from a task on
+            // the same pool, the pool adds a spare worker instead of
+            // deadlocking once every worker waits here
+            ForkJoinPool.managedBlock(new ForkJoinPool.ManagedBlocker() {
+                @Override
+                public boolean block() throws InterruptedException {
+                    run.done.await();
+                    return true;
+                }
+
+                @Override
+                public boolean isReleasable() {
+                    return run.done.getCount() == 0;
+                }
+            });
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while evaluating", e);
+        }
+
+        if (run.failed.get() < n) {
+            Throwable error = run.errors[run.failed.get()];
+            if (error instanceof Error) {
+                throw (Error) error;
+            }
+            throw (RuntimeException) error; // execute() throws no checked exceptions
+        }
+    }
+
+    /**
+     * State of one evaluation.
+     */
+    private final class Run {
+        final long[] ints;
+        final double[] reals;
+        final AtomicIntegerArray pending;
+        final CountDownLatch done;
+        final Throwable[] errors;
+        final AtomicInteger failed; // lowest failing statement index, n if none
+
+        Run(long[] ints, double[] reals) {
+            int n = graph.size();
+            this.ints = ints;
+            this.reals = reals;
+            this.pending = new AtomicIntegerArray(graph.predecessorCounts());
+            this.done = new CountDownLatch(n);
+            this.errors = new Throwable[n];
+            this.failed = new AtomicInteger(n);
+        }
+    }
+
+    private final class StatementTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final Run run;
+        private final int first;
+
+        StatementTask(Run run, int first) {
+            this.run = run;
+            this.first = first;
+        }
+
+        @Override
+        protected void compute() {
+            List<TypedStatement> statements = program.getStatements();
+            int[][] successors = graph.successors();
+            int current = first;
+
+            while (current >= 0) {
+                int next = -1;
+                try {
+                    // Statements after a failure are skipped but still release
+                    // their successors, so the latch always completes
+                    if (current < run.failed.get()) {
+                        statements.get(current).execute(run.ints, run.reals);
+                    }
+                } catch (Throwable e) {
+                    run.errors[current] = e;
+                    run.failed.accumulateAndGet(current, Math::min);
+                } finally {
+                    for (int s : successors[current]) {
+                        if (run.pending.decrementAndGet(s) == 0) {
+                            if (next >= 0) {
+                                new StatementTask(run, next).fork();
+                            }
+                            next = s;
+                        }
+                    }
+                    run.done.countDown();
+                }
+                current = next;
+            }
+        }
+    }
+}
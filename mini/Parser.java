@@ -1,6 +1,7 @@
 package mini;
 
 import java.util.ArrayList;
+import java.util.Iterator;
 import java.util.List;
 
 /**
@@ -24,41 +25,60 @@ import java.util.List;
  *   Factor'        -> ^ Factor | ε
  *
  *   Primary        -> IDENTIFIER | INTEGER | REAL
+ *
+ * Tokens are pulled one at a time with a single token of lookahead, so
+ * the parser can also run over a StreamingLexer and hand out one
+ * statement at a time (see nextStatement()).
  */
 public class Parser {
 
-    private final List<Token> tokens;
-    private int position = 0;
+    private final Iterator<Token> tokens;
+    private Token lookahead; // next token to consume, null at end of input
+    private Token previous; // last token consumed
 
     public Parser(List<Token> tokens) {
+        this(tokens.iterator());
+    }
+
+    /**
+     * @param tokens Token stream, read as parsing goes (the first token right away)
+     */
+    public Parser(Iterator<Token> tokens) {
         this.tokens = tokens;
+        this.lookahead = tokens.hasNext() ? tokens.next() : null;
     }
 
     /**
      * Entry point: parse the entire program.
      */
     public ProgramNode parseProgram() {
-        int line = 1;
-        int column = 1;
-
-        if (!tokens.isEmpty()) {
-            line = tokens.get(0).getLine();
-            column = tokens.get(0).getColumn();
-        }
-
+        Token first = lookahead;
         List<StatementNode> statements = new ArrayList<>();
+        StatementNode statement;
 
-        while (!isAtEnd()) {
-            statements.add(parseStatement());
+        while ((statement = nextStatement()) != null) {
+            statements.add(statement);
         }
 
-        return new ProgramNode(statements, line, column);
+        return first != null
+                ? new ProgramNode(statements, first)
+                : new ProgramNode(statements, 1, 1);
+    }
+
+    /**
+     * Parse just the next statement. The parser keeps no reference to it,
+     * so a caller that drops each statement after use holds one at a time.
+     * @return The statement, or null at end of input
+     */
+    public StatementNode nextStatement() {
+        return isAtEnd() ? null : parseStatement();
     }
 
     /**
      * Statement -> IDENTIFIER ASSIGNMENT Expression
      */
     private StatementNode parseStatement() {
+        rejectKeyword();
         Token identifier = consume(Token.Type.IDENTIFIER,
                 "Expected identifier at the start of a statement");
 
@@ -67,12 +87,7 @@ public class Parser {
 
         ExpressionNode expr = parseExpression();
 
-        return new AssignmentNode(
-                identifier.getValue(),
-                expr,
-                identifier.getLine(),
-                identifier.getColumn()
-        );
+        return new AssignmentNode(identifier.getValue(), expr, identifier);
     }
 
     /**
@@ -81,16 +96,10 @@ public class Parser {
     private ExpressionNode parseExpression() {
         ExpressionNode left = parseTerm();
 
-        while (matchOperator("+", "-")) {
+        while (match(Token.Type.PLUS, Token.Type.MINUS)) {
             Token op = previous();
             ExpressionNode right = parseTerm();
-            left = new BinaryExpressionNode(
-                    left,
-                    op.getValue(),
-                    right,
-                    op.getLine(),
-                    op.getColumn()
-            );
+            left = new BinaryExpressionNode(left, Operator.of(op.getType()), right, op);
         }
 
         return left;
@@ -102,16 +111,10 @@ public class Parser {
     private ExpressionNode parseTerm() {
         ExpressionNode left = parseFactor();
 
-        while (matchOperator("*", "/")) {
+        while (match(Token.Type.STAR, Token.Type.SLASH)) {
             Token op = previous();
             ExpressionNode right = parseFactor();
-            left = new BinaryExpressionNode(
-                    left,
-                    op.getValue(),
-                    right,
-                    op.getLine(),
-                    op.getColumn()
-            );
+            left = new BinaryExpressionNode(left, Operator.of(op.getType()), right, op);
         }
 
         return left;
@@ -125,16 +128,10 @@ public class Parser {
     private ExpressionNode parseFactor() {
         ExpressionNode base = parsePrimary();
 
-        if (matchOperator("^")) {
+        if (match(Token.Type.CARET)) {
             Token op = previous();
             ExpressionNode exponent = parseFactor();
-            return new BinaryExpressionNode(
-                    base,
-                    op.getValue(),
-                    exponent,
-                    op.getLine(),
-                    op.getColumn()
-            );
+            return new BinaryExpressionNode(base, Operator.of(op.getType()), exponent, op);
         }
 
         return base;
@@ -144,35 +141,16 @@ public class Parser {
      * Primary -> IDENTIFIER | INTEGER | REAL
      */
     private ExpressionNode parsePrimary() {
-        if (match(Token.Type.INTEGER)) {
-            Token number = previous();
-            return new NumberLiteralNode(
-                    number.getValue(),
-                    false,
-                    number.getLine(),
-                    number.getColumn()
-            );
-        }
-
-        if (match(Token.Type.REAL)) {
-            Token number = previous();
-            return new NumberLiteralNode(
-                    number.getValue(),
-                    true,
-                    number.getLine(),
-                    number.getColumn()
-            );
+        if (match(Token.Type.INTEGER, Token.Type.REAL)) {
+            return new NumberLiteralNode(previous());
         }
 
         if (match(Token.Type.IDENTIFIER)) {
-            Token id = previous();
-            return new IdentifierExpressionNode(
-                    id.getValue(),
-                    id.getLine(),
-                    id.getColumn()
-            );
+            return new IdentifierExpressionNode(previous());
         }
 
+        rejectKeyword();
+
         // If we reach here we have no valid primary
         if (isAtEnd()) {
             throw new ParserException("Unexpected end of input while parsing expression");
@@ -184,21 +162,21 @@ public class Parser {
     // ---------- Helper methods ----------
 
     private boolean isAtEnd() {
-        return position >= tokens.size();
+        return lookahead == null;
     }
 
     private Token current() {
-        if (tokens.isEmpty()) {
-            throw new ParserException("Unexpected end of input at start of file");
-        }
         if (isAtEnd()) {
-            return tokens.get(tokens.size() - 1);
+            if (previous == null) {
+                throw new ParserException("Unexpected end of input at start of file");
+            }
+            return previous; // the last token
         }
-        return tokens.get(position);
+        return lookahead;
     }
 
     private Token previous() {
-        return tokens.get(position - 1);
+        return previous;
     }
 
     private boolean match(Token.Type type) {
@@ -211,11 +189,14 @@ public class Parser {
 
     private boolean check(Token.Type type) {
         if (isAtEnd()) return false;
-        return tokens.get(position).getType() == type;
+        return lookahead.getType() == type;
     }
 
     private Token advance() {
-        if (!isAtEnd()) position++;
+        if (!isAtEnd()) {
+            previous = lookahead;
+            lookahead = tokens.hasNext() ? tokens.next() : null;
+        }
         return previous();
     }
 
@@ -225,24 +206,28 @@ public class Parser {
     }
 
     /**
-     * Match an OPERATOR token whose lexeme is one of the provided strings.
+     * Match a token of either of two kinds (e.g. the two operators of one
+     * precedence level).
      */
-    private boolean matchOperator(String... ops) {
+    private boolean match(Token.Type first, Token.Type second) {
         if (isAtEnd()) return false;
 
-        Token tok = tokens.get(position);
-        if (tok.getType() != Token.Type.OPERATOR) {
-            return false;
+        Token.Type type = lookahead.getType();
+        if (type == first || type == second) {
+            advance();
+            return true;
         }
+        return false;
+    }
 
-        for (String op : ops) {
-            if (tok.getValue().equals(op)) {
-                advance();
-                return true;
-            }
+    /**
+     * Report a reserved word used where a variable name is expected.
+     */
+    private void rejectKeyword() {
+        if (check(Token.Type.KEYWORD)) {
+            Token kw = lookahead;
+            throw error(kw, "Reserved word '" + kw.getValue() + "' cannot be used as a variable name");
         }
-
-        return false;
     }
 
     private ParserException error(Token token, String message) {
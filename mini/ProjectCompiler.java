@@ -0,0 +1,227 @@
+package mini;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.RecursiveTask;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * COSC3127 Programming Languages - Assignment 1
+ *
+ * Project mode: compiles every Mini file of a project in parallel.
+ *
+ * A project is either a directory (every *.mini file below it) or a
+ * manifest file listing one source path per line, relative to the
+ * manifest; blank lines and lines starting with '#' are ignored.
+ *
+ * Each file is its own fork-join task, so idle workers steal files from
+ * busy ones and one large file never holds up the small ones. Files are
+ * forked largest first so the big ones do not end up as the tail.
+ * A failure in one file is recorded in its result and does not affect
+ * any other file.
+ */
+public class ProjectCompiler {
+
+    static final String SOURCE_EXTENSION = ".mini";
+
+    /**
+     * Outcome of compiling one file.
+     */
+    static final class FileResult {
+        final Path path;
+        final int tokens;
+        final int statements;
+        final String error; // null if the file compiled
+        final long nanos;
+
+        FileResult(Path path, int tokens, int statements, String error, long nanos) {
+            this.path = path;
+            this.tokens = tokens;
+            this.statements = statements;
+            this.error = error;
+            this.nanos = nanos;
+        }
+
+        boolean ok() {
+            return error == null;
+        }
+    }
+
+    private final ForkJoinPool pool;
+
+    public ProjectCompiler(ForkJoinPool pool) {
+        this.pool = pool;
+    }
+
+    /**
+     * Compile a project and write the aggregate report.
+     * @param project Directory or manifest file
+     * @param out Where the report goes
+     * @return true if every file compiled
+     * @throws IOException if the project itself cannot be listed
+     */
+    public boolean run(Path project, PrintStream out) throws IOException {
+        List<Path> files = collectSources(project);
+        long start = System.nanoTime();
+        List<FileResult> results = compileAll(files);
+        long elapsed = System.nanoTime() - start;
+        return report(results, elapsed, out);
+    }
+
+    /**
+     * Compile the given files on the pool.
+     * @param files Source files
+     * @return One result per file, in the same order as files
+     */
+    public List<FileResult> compileAll(List<Path> files) {
+        FileResult[] results = new FileResult[files.size()];
+        pool.invoke(new CompileAll(files, results));
+        List<FileResult> list = new ArrayList<>(results.length);
+        for (FileResult r : results) {
+            list.add(r);
+        }
+        return list;
+    }
+
+    /**
+     * Resolve a project directory or manifest to its list of source files.
+     */
+    static List<Path> collectSources(Path project) throws IOException {
+        if (Files.isDirectory(project)) {
+            try (Stream<Path> walk = Files.walk(project)) {
+                return walk.filter(Files::isRegularFile)
+                        .filter(p -> p.getFileName().toString().endsWith(SOURCE_EXTENSION))
+                        .sorted()
+                        .collect(Collectors.toList());
+            }
+        }
+
+        Path base = project.toAbsolutePath().getParent();
+        List<Path> files = new ArrayList<>();
+        for (String line : Files.readAllLines(project)) {
+            String entry = line.trim();
+            if (entry.isEmpty() || entry.startsWith("#")) {
+                continue;
+            }
+            files.add(base.resolve(entry).normalize());
+        }
+        return files;
+    }
+
+    /**
+     * Lex and parse one file. Never throws: any failure becomes the result.
+     */
+    static FileResult compileFile(Path path) {
+        long start = System.nanoTime();
+        int tokenCount = 0;
+        try {
+            Lexer lexer = new Lexer(Files.readAllBytes(path));
+            List<Token> tokens = lexer.tokenize();
+            tokenCount = tokens.size();
+
+            Parser parser = new Parser(tokens);
+            ProgramNode program = parser.parseProgram();
+
+            return new FileResult(path, tokenCount, program.getStatements().size(),
+                    null, System.nanoTime() - start);
+        } catch (IOException e) {
+            return new FileResult(path, tokenCount, 0,
+                    "I/O error: " + e.getMessage(), System.nanoTime() - start);
+        } catch (RuntimeException | StackOverflowError e) {
+            return new FileResult(path, tokenCount, 0,
+                    String.valueOf(e.getMessage()), System.nanoTime() - start);
+        }
+    }
+
+    private static boolean report(List<FileResult> results, long elapsed, PrintStream out) {
+        int failed = 0;
+        long tokens = 0;
+        long statements = 0;
+
+        out.println("=== Project Report ===");
+        for (FileResult r : results) {
+            if (r.ok()) {
+                out.printf("OK    %s (%d tokens, %d statements, %.1f ms)%n",
+                        r.path, r.tokens, r.statements, r.nanos / 1e6);
+                tokens += r.tokens;
+                statements += r.statements;
+            } else {
+                out.printf("FAIL  %s: %s%n", r.path, r.error);
+                failed++;
+            }
+        }
+        out.printf("%n%d files, %d compiled, %d failed; %d tokens, %d statements in %.1f ms%n",
+                results.size(), results.size() - failed, failed, tokens, statements, elapsed / 1e6);
+        return failed == 0;
+    }
+
+    /**
+     * Root task: forks one task per file, largest file first.
+     */
+    private static final class CompileAll extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final List<Path> files;
+        private final FileResult[] results;
+
+        CompileAll(List<Path> files, FileResult[] results) {
+            this.files = files;
+            this.results = results;
+        }
+
+        @Override
+        protected void compute() {
+            Integer[] order = new Integer[files.size()];
+            long[] sizes = new long[files.size()];
+            for (int i = 0; i < order.length; i++) {
+                order[i] = i;
+                sizes[i] = sizeOf(files.get(i));
+            }
+            Arrays.sort(order, Comparator.comparingLong((Integer i) -> sizes[i]).reversed());
+
+            // Thieves take from the bottom of this worker's deque (the largest
+            // files, forked first) while this worker pops the small ones.
+            List<CompileFile> tasks = new ArrayList<>(order.length);
+            for (int i : order) {
+                CompileFile task = new CompileFile(files.get(i));
+                task.fork();
+                tasks.add(task);
+            }
+            for (int k = 0; k < order.length; k++) {
+                results[order[k]] = tasks.get(k).join();
+            }
+        }
+
+        private static long sizeOf(Path path) {
+            try {
+                return Files.size(path);
+            } catch (IOException e) {
+                return 0; // compileFile reports the real error
+            }
+        }
+    }
+
+    private static final class CompileFile extends RecursiveTask<FileResult> {
+        private static final long serialVersionUID = 1L;
+
+        private final Path path;
+
+        CompileFile(Path path) {
+            this.path = path;
+        }
+
+        @Override
+        protected FileResult compute() {
+            return compileFile(path);
+        }
+    }
+}
@@ -0,0 +1,190 @@
+package mini;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * COSC3127 Programming Languages - Assignment 1
+ *
+ * Flat code for one typed expression: the tree in post-order as a list of
+ * stack instructions over two operand stacks, long[] for integer values
+ * and double[] for real ones. Running it is a single loop, so evaluation
+ * depth never depends on expression depth. Lowering walks the tree with
+ * an explicit stack for the same reason.
+ *
+ * The stacks are sized at lowering time and allocated per evaluation,
+ * so one StatementCode can run on several frames at once.
+ */
+final class StatementCode {
+
+    // Opcodes; PUSH and LOAD are followed by one operand (constant index or slot)
+    static final int PUSH_L = 0;
+    static final int PUSH_D = 1;
+    static final int LOAD_L = 2;
+    static final int LOAD_D = 3;
+    static final int TO_REAL = 4; // pop a long, push it as a double
+    static final int ADD_L = 5;
+    static final int SUB_L = 6;
+    static final int MUL_L = 7;
+    static final int DIV_L = 8;
+    static final int POW_L = 9;
+    static final int ADD_D = 10;
+    static final int SUB_D = 11;
+    static final int MUL_D = 12;
+    static final int DIV_D = 13;
+    static final int POW_D = 14;
+
+    private final int[] code;
+    private final long[] longConstants;
+    private final double[] doubleConstants;
+    private final int longDepth; // operand stack sizes needed
+    private final int doubleDepth;
+
+    private StatementCode(Builder b) {
+        this.code = Arrays.copyOf(b.code, b.length);
+        this.longConstants = b.longConstants.stream().mapToLong(Long::longValue).toArray();
+        this.doubleConstants = b.doubleConstants.stream().mapToDouble(Double::doubleValue).toArray();
+        this.longDepth = b.maxLongs;
+        this.doubleDepth = b.maxDoubles;
+    }
+
+    /**
+     * Lower a typed expression, operands before the node that uses them.
+     */
+    static StatementCode lower(TypedExpr root) {
+        Builder b = new Builder();
+        List<TypedExpr> nodes = new ArrayList<>();
+        List<Boolean> expanded = new ArrayList<>();
+        nodes.add(root);
+        expanded.add(false);
+
+        while (!nodes.isEmpty()) {
+            int top = nodes.size() - 1;
+            TypedExpr node = nodes.get(top);
+            if (expanded.get(top)) {
+                nodes.remove(top);
+                expanded.remove(top);
+                node.emit(b);
+            } else {
+                expanded.set(top, true);
+                TypedExpr[] operands = node.operands();
+                for (int i = operands.length - 1; i >= 0; i--) {
+                    nodes.add(operands[i]);
+                    expanded.add(false);
+                }
+            }
+        }
+        return new StatementCode(b);
+    }
+
+    long evalLong(long[] ints, double[] reals) {
+        long[] ls = new long[longDepth];
+        run(ints, reals, ls, new double[doubleDepth]);
+        return ls[0];
+    }
+
+    double evalDouble(long[] ints, double[] reals) {
+        double[] ds = new double[doubleDepth];
+        run(ints, reals, new long[longDepth], ds);
+        return ds[0];
+    }
+
+    private void run(long[] ints, double[] reals, long[] ls, double[] ds) {
+        int lp = 0; // stack sizes
+        int dp = 0;
+        for (int pc = 0; pc < code.length; pc++) {
+            switch (code[pc]) {
+                case PUSH_L: ls[lp++] = longConstants[code[++pc]]; break;
+                case PUSH_D: ds[dp++] = doubleConstants[code[++pc]]; break;
+                case LOAD_L: ls[lp++] = ints[code[++pc]]; break;
+                case LOAD_D: ds[dp++] = reals[code[++pc]]; break;
+                case TO_REAL: ds[dp++] = ls[--lp]; break;
+                case ADD_L: lp--; ls[lp - 1] = ls[lp - 1] + ls[lp]; break;
+                case SUB_L: lp--; ls[lp - 1] = ls[lp - 1] - ls[lp]; break;
+                case MUL_L: lp--; ls[lp - 1] = ls[lp - 1] * ls[lp]; break;
+                case DIV_L: lp--; ls[lp - 1] = ls[lp - 1] / ls[lp]; break;
+                case POW_L: lp--; ls[lp - 1] = Arithmetic.pow(ls[lp - 1], ls[lp]); break;
+                case ADD_D: dp--; ds[dp - 1] = ds[dp - 1] + ds[dp]; break;
+                case SUB_D: dp--; ds[dp - 1] = ds[dp - 1] - ds[dp]; break;
+                case MUL_D: dp--; ds[dp - 1] = ds[dp - 1] * ds[dp]; break;
+                case DIV_D: dp--; ds[dp - 1] = ds[dp - 1] / ds[dp]; break;
+                case POW_D: dp--; ds[dp - 1] = Math.pow(ds[dp - 1], ds[dp]); break;
+                default: throw new IllegalStateException("Bad opcode " + code[pc]);
+            }
+        }
+    }
+
+    /**
+     * Collects instructions while tracking how deep each stack gets.
+     */
+    static final class Builder {
+        private int[] code = new int[16];
+        private int length = 0;
+        private final List<Long> longConstants = new ArrayList<>();
+        private final List<Double> doubleConstants = new ArrayList<>();
+        private int longs = 0;
+        private int doubles = 0;
+        private int maxLongs = 0;
+        private int maxDoubles = 0;
+
+        void pushLong(long value) {
+            longConstants.add(value);
+            append(PUSH_L, longConstants.size() - 1);
+            growLongs(1);
+        }
+
+        void pushDouble(double value) {
+            doubleConstants.add(value);
+            append(PUSH_D, doubleConstants.size() - 1);
+            growDoubles(1);
+        }
+
+        void loadLong(int slot) {
+            append(LOAD_L, slot);
+            growLongs(1);
+        }
+
+        void loadDouble(int slot) {
+            append(LOAD_D, slot);
+            growDoubles(1);
+        }
+
+        void toReal() {
+            append(TO_REAL);
+            growLongs(-1);
+            growDoubles(1);
+        }
+
+        /** Binary integer operation (ADD_L ... POW_L) */
+        void longOp(int op) {
+            append(op);
+            growLongs(-1);
+        }
+
+        /** Binary real operation (ADD_D ... POW_D) */
+        void doubleOp(int op) {
+            append(op);
+            growDoubles(-1);
+        }
+
+        private void growLongs(int delta) {
+            longs += delta;
+            maxLongs = Math.max(maxLongs, longs);
+        }
+
+        private void growDoubles(int delta) {
+            doubles += delta;
+            maxDoubles = Math.max(maxDoubles, doubles);
+        }
+
+        private void append(int... words) {
+            if (length + words.length > code.length) {
+                code = Arrays.copyOf(code, Math.max(code.length * 2, length + words.length));
+            }
+            for (int w : words) {
+                code[length++] = w;
+            }
+        }
+    }
+}
@@ -0,0 +1,15 @@
+package mini;
+
+/**
+ * COSC3127 Programming Languages - Assignment 1
+ *
+ * Visitor over the statement nodes only (see StatementNode.accept), for
+ * passes that handle each statement of a program. AstVisitor extends it,
+ * so adding a statement class breaks every statement pass until it is
+ * handled, instead of failing a cast at run time.
+ *
+ * @param <R> Result type of the visit
+ */
+interface StatementVisitor<R> {
+    R visitAssignment(AssignmentNode node);
+}
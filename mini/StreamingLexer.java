@@ -0,0 +1,135 @@
+package mini;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * COSC3127 Programming Languages - Assignment 1
+ * Lexical Analyzer
+ * Tokenizes a source of any size from a Reader, holding only a bounded
+ * window of it in memory.
+ *
+ * The input is read in chunks of about CHUNK_SIZE chars. No Mini token
+ * contains whitespace, so each chunk is cut right after its last
+ * whitespace char and handed to an ordinary Lexer; the rest is carried
+ * over to the next chunk. Tokens, and lexical errors, report their line
+ * and column within the whole input. A single token longer than a chunk
+ * grows the buffer until it fits.
+ *
+ * Tokens are scanned one at a time as they are asked for, so besides the
+ * caller's own tokens only the current chunk's text is held, and a
+ * lexical error is thrown only when the token stream reaches it.
+ *
+ * Read errors surface as UncheckedIOException from hasNext()/next().
+ */
+public final class StreamingLexer implements Iterator<Token> {
+
+    static final int CHUNK_SIZE = 1 << 16;
+
+    private final Reader in;
+    private char[] buffer = new char[CHUNK_SIZE];
+    private int filled = 0; // chars of buffer holding unread input
+    private boolean eof = false;
+    private int line = 1; // position of buffer[0] in the whole input
+    private int column = 1;
+    private Lexer chunk; // scans the current chunk, null before the first
+    private Token pending; // token scanned by hasNext(), not yet returned
+
+    /**
+     * @param in Source code to be tokenized; read up to its end but not closed
+     */
+    public StreamingLexer(Reader in) {
+        this.in = in;
+    }
+
+    @Override
+    public boolean hasNext() {
+        while (pending == null) {
+            if (chunk != null) {
+                pending = chunk.nextToken();
+            }
+            if (pending == null && !lexNextChunk()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public Token next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        Token token = pending;
+        pending = null;
+        return token;
+    }
+
+    /**
+     * Start tokenizing the next chunk of input.
+     * @return false once the input is exhausted
+     */
+    private boolean lexNextChunk() {
+        int cut;
+        while (true) {
+            fill();
+            if (eof) {
+                cut = filled;
+                break;
+            }
+            cut = lastWhitespace() + 1;
+            if (cut > 0) {
+                break;
+            }
+            buffer = Arrays.copyOf(buffer, buffer.length * 2); // one huge token
+        }
+        if (cut == 0) {
+            return false;
+        }
+
+        String text = new String(buffer, 0, cut);
+        chunk = new Lexer(text, line, column);
+
+        for (int i = 0; i < cut; i++) {
+            if (buffer[i] == '\n') {
+                line++;
+                column = 1;
+            } else {
+                column++;
+            }
+        }
+        System.arraycopy(buffer, cut, buffer, 0, filled - cut);
+        filled -= cut;
+        return true;
+    }
+
+    private void fill() {
+        try {
+            while (!eof && filled < buffer.length) {
+                int n = in.read(buffer, filled, buffer.length - filled);
+                if (n < 0) {
+                    eof = true;
+                } else {
+                    filled += n;
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    // Same whitespace test as Lexer.skipWhitespace(); -1 if there is none
+    private int lastWhitespace() {
+        for (int i = filled - 1; i >= 0; i--) {
+            char c = buffer[i];
+            if (CharClass.is(c, CharClass.WHITESPACE) || (c >= 128 && Character.isWhitespace(c))) {
+                return i;
+            }
+        }
+        return -1;
+    }
+}
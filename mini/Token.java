@@ -10,43 +10,111 @@ public class Token {
         IDENTIFIER,
         INTEGER,
         REAL,
-        OPERATOR,
+        PLUS,
+        MINUS,
+        STAR,
+        SLASH,
+        CARET,
         KEYWORD,
         ASSIGNMENT,
         //Add other token types as needed
     }
 
     private final Type type;
-    private final String value;
+    private final String value; // null for INTEGER/REAL tokens, which carry a number instead
+    private final long number; // INTEGER value, or REAL value as raw double bits
     private final int line;
     private final int column;
+    private final int offset; // Start index in the source (chars, or bytes in byte mode), -1 if unknown
+    private final LineMap lines; // Source line index; line/column are derived from offset when set
 
     public Token(Type type, String value, int line, int column) {
         this.type = type;
         this.value = value;
         this.line = line;
         this.column = column;
+        this.number = 0;
+        this.offset = -1;
+        this.lines = null;
+    }
+
+    /**
+     * Token positioned by its start offset only.
+     * Line and column are looked up in the LineMap when first asked for.
+     */
+    public Token(Type type, String value, int offset, LineMap lines) {
+        this(type, value, 0, offset, lines);
+    }
+
+    /**
+     * INTEGER token holding its value, converted by the Lexer.
+     */
+    public Token(long intValue, int offset, LineMap lines) {
+        this(Type.INTEGER, null, intValue, offset, lines);
+    }
+
+    /**
+     * REAL token holding its value, converted by the Lexer.
+     */
+    public Token(double realValue, int offset, LineMap lines) {
+        this(Type.REAL, null, Double.doubleToRawLongBits(realValue), offset, lines);
+    }
+
+    private Token(Type type, String value, long number, int offset, LineMap lines) {
+        this.type = type;
+        this.value = value;
+        this.number = number;
+        this.line = 0;
+        this.column = 0;
+        this.offset = offset;
+        this.lines = lines;
     }
 
     public Type getType() {
         return type;
     }
 
+    /**
+     * Lexeme of the token. Number tokens built by the Lexer do not keep
+     * their source text; for them this is the value's canonical text.
+     */
     public String getValue() {
-        return value;
+        if (value != null) {
+            return value;
+        }
+        return type == Type.REAL ? NumberLiterals.format(getRealValue()) : Long.toString(number);
+    }
+
+    /** @return Value of an INTEGER token built by the Lexer */
+    public long getIntValue() {
+        return number;
+    }
+
+    /** @return Value of a REAL token built by the Lexer */
+    public double getRealValue() {
+        return Double.longBitsToDouble(number);
     }
 
     public int getLine() {
-        return line;
+        return lines != null ? lines.lineOf(offset) : line;
     }
 
     public int getColumn() {
-        return column;
+        return lines != null ? lines.columnOf(offset) : column;
+    }
+
+    public int getOffset() {
+        return offset;
+    }
+
+    // Line index the position is looked up in, null for tokens built with line/column
+    LineMap getLineMap() {
+        return lines;
     }
 
     @Override
     public String toString() {
-        return String.format("Token[type=%s, value=%s, line=%d, column=%d]", type, value, line, column);
+        return String.format("Token[type=%s, value=%s, line=%d, column=%d]", type, getValue(), getLine(), getColumn());
     }
     
 }
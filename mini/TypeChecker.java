@@ -0,0 +1,177 @@
+package mini;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * COSC3127 Programming Languages - Assignment 1
+ *
+ * Static type inference for Mini programs.
+ *
+ * Rules:
+ *   - an integer literal is integer, a real literal is real
+ *   - integer op integer is integer; if either operand is real the
+ *     integer one is promoted and the result is real
+ *   - a variable's type is fixed by its first assignment (or, for a
+ *     variable read before it is assigned, by its declared input type)
+ *   - an integer value may be assigned to a real variable (promoted);
+ *     assigning a real value to an integer variable is a conflict
+ *
+ * All conflicts are collected and reported together in a TypeException.
+ * A well-typed program is rewritten into the specialized nodes of
+ * TypedAst.java (IntAdd, RealMul, IntPow, ...), see TypedProgram.
+ */
+public class TypeChecker {
+
+    private final Map<String, ValueType> inputTypes;
+
+    /**
+     * Type checker for programs without free variables.
+     */
+    public TypeChecker() {
+        this(Collections.emptyMap());
+    }
+
+    /**
+     * @param inputTypes Declared type of each variable the program may read
+     *                   before assigning it
+     */
+    public TypeChecker(Map<String, ValueType> inputTypes) {
+        this.inputTypes = inputTypes;
+    }
+
+    /**
+     * Infer types and rewrite the program into typed nodes.
+     * @param program The parsed program
+     * @return The typed program
+     * @throws TypeException listing every type error found
+     */
+    public TypedProgram check(ProgramNode program) {
+        return new Check().run(program);
+    }
+
+    /**
+     * State of one check() call, so a checker can be reused.
+     */
+    private final class Check implements StatementVisitor<TypedStatement> {
+        private final Map<String, TypedProgram.Variable> variables = new LinkedHashMap<>();
+        private final Map<String, ASTNode> typedAt = new LinkedHashMap<>(); // where each type was fixed
+        private final List<String> errors = new ArrayList<>();
+        private int intSlots = 0;
+        private int realSlots = 0;
+
+        TypedProgram run(ProgramNode program) {
+            List<TypedStatement> statements = new ArrayList<>();
+
+            for (StatementNode stmt : program.getStatements()) {
+                statements.add(stmt.accept(this));
+            }
+
+            if (!errors.isEmpty()) {
+                throw new TypeException(errors);
+            }
+            return new TypedProgram(statements, variables, intSlots, realSlots);
+        }
+
+        @Override
+        public TypedStatement visitAssignment(AssignmentNode a) {
+            TypedExpr value = AstWalker.fold(a.getExpression(), expressions);
+            TypedProgram.Variable target = variables.get(a.getIdentifier());
+
+            if (target == null) {
+                target = declare(a.getIdentifier(), value.type(), false, a);
+            } else if (target.getType() == ValueType.INTEGER && value.type() == ValueType.REAL) {
+                ASTNode first = typedAt.get(a.getIdentifier());
+                error(a, "Cannot assign a real value to integer variable '" + a.getIdentifier()
+                        + "' (typed at line " + first.getLine() + ", column " + first.getColumn() + ")");
+            }
+
+            if (target.getType() == ValueType.INTEGER) {
+                return new IntAssign(a.getIdentifier(), target.getSlot(), asInt(value));
+            }
+            return new RealAssign(a.getIdentifier(), target.getSlot(), promote(value));
+        }
+
+        /**
+         * Types an expression and builds its specialized node, bottom-up.
+         */
+        private final ExpressionFolder<TypedExpr> expressions = new ExpressionFolder<>() {
+            @Override
+            public TypedExpr foldNumberLiteral(NumberLiteralNode n) {
+                if (n.isReal()) {
+                    return new RealConst(n.getRealValue());
+                }
+                return new IntConst(n.getIntValue());
+            }
+
+            @Override
+            public TypedExpr foldIdentifierExpression(IdentifierExpressionNode id) {
+                TypedProgram.Variable v = variables.get(id.getName());
+                if (v == null) {
+                    ValueType declared = inputTypes.get(id.getName());
+                    if (declared == null) {
+                        error(id, "Variable '" + id.getName()
+                                + "' is read before it is assigned and has no input type");
+                        declared = ValueType.INTEGER; // keep going to find further errors
+                    }
+                    v = declare(id.getName(), declared, true, id);
+                }
+                return v.getType() == ValueType.INTEGER
+                        ? new IntVar(v.getName(), v.getSlot())
+                        : new RealVar(v.getName(), v.getSlot());
+            }
+
+            @Override
+            public TypedExpr foldBinaryExpression(BinaryExpressionNode b, TypedExpr left, TypedExpr right) {
+                if (left.type() == ValueType.INTEGER && right.type() == ValueType.INTEGER) {
+                    IntExpr l = (IntExpr) left;
+                    IntExpr r = (IntExpr) right;
+                    switch (b.getOperator()) {
+                        case PLUS: return new IntAdd(l, r);
+                        case MINUS: return new IntSub(l, r);
+                        case STAR: return new IntMul(l, r);
+                        case SLASH: return new IntDiv(l, r);
+                        case CARET: return new IntPow(l, r);
+                        default: break;
+                    }
+                } else {
+                    RealExpr l = promote(left);
+                    RealExpr r = promote(right);
+                    switch (b.getOperator()) {
+                        case PLUS: return new RealAdd(l, r);
+                        case MINUS: return new RealSub(l, r);
+                        case STAR: return new RealMul(l, r);
+                        case SLASH: return new RealDiv(l, r);
+                        case CARET: return new RealPow(l, r);
+                        default: break;
+                    }
+                }
+                throw new IllegalStateException("Unknown operator '" + b.getOperator() + "'");
+            }
+        };
+
+        private TypedProgram.Variable declare(String name, ValueType type, boolean input, ASTNode at) {
+            int slot = type == ValueType.INTEGER ? intSlots++ : realSlots++;
+            TypedProgram.Variable v = new TypedProgram.Variable(name, type, slot, input);
+            variables.put(name, v);
+            typedAt.put(name, at);
+            return v;
+        }
+
+        private static RealExpr promote(TypedExpr e) {
+            return e.type() == ValueType.REAL ? (RealExpr) e : new IntToReal((IntExpr) e);
+        }
+
+        // Only reached for well-typed integer targets, or after a conflict was recorded
+        private static IntExpr asInt(TypedExpr e) {
+            return e.type() == ValueType.INTEGER ? (IntExpr) e : new IntConst(0);
+        }
+
+        private void error(ASTNode node, String message) {
+            errors.add(message + " at line " + node.getLine() + ", column " + node.getColumn());
+        }
+    }
+}
@@ -0,0 +1,22 @@
+package mini;
+
+import java.util.List;
+
+/**
+ * COSC3127 Programming Languages - Assignment 1
+ *
+ * Type errors found by the TypeChecker; the message lists all of them,
+ * one per line.
+ */
+public class TypeException extends RuntimeException {
+    private final List<String> errors;
+
+    public TypeException(List<String> errors) {
+        super(String.join("\n", errors));
+        this.errors = List.copyOf(errors);
+    }
+
+    public List<String> getErrors() {
+        return errors;
+    }
+}
@@ -0,0 +1,325 @@
+package mini;
+
+/**
+ * Typed, specialized expression trees produced by the TypeChecker.
+ *
+ * Every node has a fixed static type and a single typed operation: there
+ * is no operator string to compare, no literal to parse and no boxing.
+ * Variables are resolved to slots of a frame made of one long[] (integer
+ * variables) and one double[] (real variables).
+ *
+ * Each assignment lowers its tree once into a flat StatementCode, which
+ * runs on explicit operand stacks, so evaluation does not recurse and
+ * arbitrarily deep expressions are safe. A node only describes its own
+ * operation (emit()); its operands are emitted first by the lowering.
+ */
+abstract class TypedExpr {
+    private static final TypedExpr[] NO_OPERANDS = {};
+
+    abstract ValueType type();
+
+    /**
+     * @return Operands, left to right; their values are on the stack when
+     *         this node's instruction runs
+     */
+    TypedExpr[] operands() {
+        return NO_OPERANDS;
+    }
+
+    /**
+     * Append this node's own instruction.
+     */
+    abstract void emit(StatementCode.Builder code);
+}
+
+/**
+ * Expression of static type integer.
+ */
+abstract class IntExpr extends TypedExpr {
+    @Override
+    ValueType type() {
+        return ValueType.INTEGER;
+    }
+}
+
+/**
+ * Expression of static type real.
+ */
+abstract class RealExpr extends TypedExpr {
+    @Override
+    ValueType type() {
+        return ValueType.REAL;
+    }
+}
+
+/**
+ * Integer operation on two integer operands.
+ */
+abstract class IntBinary extends IntExpr {
+    final IntExpr left;
+    final IntExpr right;
+
+    IntBinary(IntExpr left, IntExpr right) {
+        this.left = left;
+        this.right = right;
+    }
+
+    @Override
+    TypedExpr[] operands() {
+        return new TypedExpr[] {left, right};
+    }
+}
+
+/**
+ * Real operation on two real operands.
+ */
+abstract class RealBinary extends RealExpr {
+    final RealExpr left;
+    final RealExpr right;
+
+    RealBinary(RealExpr left, RealExpr right) {
+        this.left = left;
+        this.right = right;
+    }
+
+    @Override
+    TypedExpr[] operands() {
+        return new TypedExpr[] {left, right};
+    }
+}
+
+final class IntConst extends IntExpr {
+    final long value;
+
+    IntConst(long value) {
+        this.value = value;
+    }
+
+    @Override
+    void emit(StatementCode.Builder code) {
+        code.pushLong(value);
+    }
+}
+
+final class IntVar extends IntExpr {
+    final String name;
+    final int slot;
+
+    IntVar(String name, int slot) {
+        this.name = name;
+        this.slot = slot;
+    }
+
+    @Override
+    void emit(StatementCode.Builder code) {
+        code.loadLong(slot);
+    }
+}
+
+final class IntAdd extends IntBinary {
+    IntAdd(IntExpr left, IntExpr right) {
+        super(left, right);
+    }
+
+    @Override
+    void emit(StatementCode.Builder code) {
+        code.longOp(StatementCode.ADD_L);
+    }
+}
+
+final class IntSub extends IntBinary {
+    IntSub(IntExpr left, IntExpr right) {
+        super(left, right);
+    }
+
+    @Override
+    void emit(StatementCode.Builder code) {
+        code.longOp(StatementCode.SUB_L);
+    }
+}
+
+final class IntMul extends IntBinary {
+    IntMul(IntExpr left, IntExpr right) {
+        super(left, right);
+    }
+
+    @Override
+    void emit(StatementCode.Builder code) {
+        code.longOp(StatementCode.MUL_L);
+    }
+}
+
+final class IntDiv extends IntBinary {
+    IntDiv(IntExpr left, IntExpr right) {
+        super(left, right);
+    }
+
+    @Override
+    void emit(StatementCode.Builder code) {
+        code.longOp(StatementCode.DIV_L);
+    }
+}
+
+final class IntPow extends IntBinary {
+    IntPow(IntExpr left, IntExpr right) {
+        super(left, right);
+    }
+
+    @Override
+    void emit(StatementCode.Builder code) {
+        code.longOp(StatementCode.POW_L);
+    }
+}
+
+final class RealConst extends RealExpr {
+    final double value;
+
+    RealConst(double value) {
+        this.value = value;
+    }
+
+    @Override
+    void emit(StatementCode.Builder code) {
+        code.pushDouble(value);
+    }
+}
+
+final class RealVar extends RealExpr {
+    final String name;
+    final int slot;
+
+    RealVar(String name, int slot) {
+        this.name = name;
+        this.slot = slot;
+    }
+
+    @Override
+    void emit(StatementCode.Builder code) {
+        code.loadDouble(slot);
+    }
+}
+
+/**
+ * Promotion of an integer operand to real.
+ */
+final class IntToReal extends RealExpr {
+    final IntExpr operand;
+
+    IntToReal(IntExpr operand) {
+        this.operand = operand;
+    }
+
+    @Override
+    TypedExpr[] operands() {
+        return new TypedExpr[] {operand};
+    }
+
+    @Override
+    void emit(StatementCode.Builder code) {
+        code.toReal();
+    }
+}
+
+final class RealAdd extends RealBinary {
+    RealAdd(RealExpr left, RealExpr right) {
+        super(left, right);
+    }
+
+    @Override
+    void emit(StatementCode.Builder code) {
+        code.doubleOp(StatementCode.ADD_D);
+    }
+}
+
+final class RealSub extends RealBinary {
+    RealSub(RealExpr left, RealExpr right) {
+        super(left, right);
+    }
+
+    @Override
+    void emit(StatementCode.Builder code) {
+        code.doubleOp(StatementCode.SUB_D);
+    }
+}
+
+final class RealMul extends RealBinary {
+    RealMul(RealExpr left, RealExpr right) {
+        super(left, right);
+    }
+
+    @Override
+    void emit(StatementCode.Builder code) {
+        code.doubleOp(StatementCode.MUL_D);
+    }
+}
+
+final class RealDiv extends RealBinary {
+    RealDiv(RealExpr left, RealExpr right) {
+        super(left, right);
+    }
+
+    @Override
+    void emit(StatementCode.Builder code) {
+        code.doubleOp(StatementCode.DIV_D);
+    }
+}
+
+final class RealPow extends RealBinary {
+    RealPow(RealExpr left, RealExpr right) {
+        super(left, right);
+    }
+
+    @Override
+    void emit(StatementCode.Builder code) {
+        code.doubleOp(StatementCode.POW_D);
+    }
+}
+
+/**
+ * Assignment with a statically known target slot.
+ */
+abstract class TypedStatement {
+    final String identifier;
+
+    TypedStatement(String identifier) {
+        this.identifier = identifier;
+    }
+
+    abstract void execute(long[] ints, double[] reals);
+}
+
+final class IntAssign extends TypedStatement {
+    final int slot;
+    final IntExpr value;
+    private final StatementCode code;
+
+    IntAssign(String identifier, int slot, IntExpr value) {
+        super(identifier);
+        this.slot = slot;
+        this.value = value;
+        this.code = StatementCode.lower(value);
+    }
+
+    @Override
+    void execute(long[] ints, double[] reals) {
+        ints[slot] = code.evalLong(ints, reals);
+    }
+}
+
+final class RealAssign extends TypedStatement {
+    final int slot;
+    final RealExpr value;
+    private final StatementCode code;
+
+    RealAssign(String identifier, int slot, RealExpr value) {
+        super(identifier);
+        this.slot = slot;
+        this.value = value;
+        this.code = StatementCode.lower(value);
+    }
+
+    @Override
+    void execute(long[] ints, double[] reals) {
+        reals[slot] = code.evalDouble(ints, reals);
+    }
+}
@@ -0,0 +1,93 @@
+package mini;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * COSC3127 Programming Languages - Assignment 1
+ *
+ * Result of type inference: the program rewritten into specialized typed
+ * nodes plus the static type and frame slot of every variable.
+ *
+ * A frame is one long[] of intSlots() integer variables and one double[]
+ * of realSlots() real variables; inputs are written into their slots
+ * before run() and results read back from the slots afterwards.
+ */
+public class TypedProgram {
+
+    /**
+     * Static type and frame slot of one variable.
+     */
+    public static final class Variable {
+        private final String name;
+        private final ValueType type;
+        private final int slot;
+        private final boolean input;
+
+        Variable(String name, ValueType type, int slot, boolean input) {
+            this.name = name;
+            this.type = type;
+            this.slot = slot;
+            this.input = input;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public ValueType getType() {
+            return type;
+        }
+
+        public int getSlot() {
+            return slot;
+        }
+
+        /** @return true if the variable is read before the program assigns it */
+        public boolean isInput() {
+            return input;
+        }
+    }
+
+    private final List<TypedStatement> statements;
+    private final Map<String, Variable> variables;
+    private final int intSlots;
+    private final int realSlots;
+
+    TypedProgram(List<TypedStatement> statements, Map<String, Variable> variables,
+                 int intSlots, int realSlots) {
+        this.statements = statements;
+        this.variables = Collections.unmodifiableMap(variables);
+        this.intSlots = intSlots;
+        this.realSlots = realSlots;
+    }
+
+    List<TypedStatement> getStatements() {
+        return statements;
+    }
+
+    /** @return Every variable by name, in order of first appearance */
+    public Map<String, Variable> getVariables() {
+        return variables;
+    }
+
+    public int intSlots() {
+        return intSlots;
+    }
+
+    public int realSlots() {
+        return realSlots;
+    }
+
+    /**
+     * Run the program on one frame.
+     * @param ints Integer variable slots (at least intSlots() long)
+     * @param reals Real variable slots (at least realSlots() long)
+     */
+    public void run(long[] ints, double[] reals) {
+        for (TypedStatement stmt : statements) {
+            stmt.execute(ints, reals);
+        }
+    }
+}
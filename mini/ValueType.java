@@ -0,0 +1,11 @@
+package mini;
+
+/**
+ * COSC3127 Programming Languages - Assignment 1
+ *
+ * Static types of Mini values: the two data types of the language.
+ */
+public enum ValueType {
+    INTEGER,
+    REAL
+}
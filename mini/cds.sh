@@ -0,0 +1,21 @@
+#!/bin/sh
+# Builds mini.jar and an AppCDS (class-data-sharing) archive for it, so
+# one-shot compiles start from pre-parsed, pre-verified classes.
+#
+# Run from anywhere; outputs go to the repository root:
+#   mini/cds.sh
+#   java -XX:SharedArchiveFile=mini.jsa -XX:TieredStopAtLevel=1 -jar mini.jar "x := 1 + 2"
+#
+# The archive is tied to the JDK that created it and to this mini.jar;
+# rerun the script after changing either.
+set -e
+cd "$(dirname "$0")/.."
+
+rm -rf build/classes
+mkdir -p build/classes
+javac -encoding UTF-8 -d build/classes mini/*.java
+jar --create --file mini.jar --main-class mini.MiniCompiler -C build/classes .
+
+# Training run: every class a typical compile loads is written to the archive.
+java -XX:ArchiveClassesAtExit=mini.jsa -jar mini.jar "x := 1 + 2.5 * y ^ 2" > /dev/null
+echo "Created mini.jar and mini.jsa"